@@ -1,29 +1,43 @@
 package com.secufusion.iam.config;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.secufusion.iam.service.AuthConfigService;
+import com.secufusion.iam.config.IssuerRejectionGuard.Reason;
+import com.secufusion.iam.event.AuthProviderConfigChangedEvent;
+import com.secufusion.iam.filter.KeycloakRolesConverter;
+import com.secufusion.iam.util.JwtIssuerExtractor;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationManagerResolver;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class DbJwtAuthenticationManagerResolver implements AuthenticationManagerResolver<HttpServletRequest> {
 
-    private final AuthConfigService tenantService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JwtDecoderRegistry decoderRegistry;
+    private final IssuerRejectionGuard rejectionGuard;
+    private final JwtAuthenticationConverter converter = createConverter();
 
-    public DbJwtAuthenticationManagerResolver(AuthConfigService tenantService) {
-        this.tenantService = tenantService;
-    }
+    /**
+     * Ready-made managers keyed by issuer. Each entry remembers the decoder it was built
+     * from, so a decoder replaced in the registry also replaces its manager.
+     */
+    private final Map<String, CachedManager> managers = new ConcurrentHashMap<>();
 
+    public DbJwtAuthenticationManagerResolver(JwtDecoderRegistry decoderRegistry,
+                                              IssuerRejectionGuard rejectionGuard) {
+        this.decoderRegistry = decoderRegistry;
+        this.rejectionGuard = rejectionGuard;
+    }
 
     @Override
     public AuthenticationManager resolve(HttpServletRequest request) {
@@ -33,41 +47,69 @@ public class DbJwtAuthenticationManagerResolver implements AuthenticationManager
         }
 
         String token = authHeader.substring(7).trim(); // "Bearer ".length()
-        String issuer = extractIssuer(token);
+        String issuer = JwtIssuerExtractor.extractIssuer(token);
         if (issuer == null) {
+            rejectionGuard.reject(request, Reason.MALFORMED);
+            return null;
+        }
+        if (!rejectionGuard.isTrusted(issuer)) {
+            rejectionGuard.reject(request, Reason.UNTRUSTED_ISSUER);
+            return null;
+        }
+        if (rejectionGuard.isKnownUnknown(issuer)) {
+            rejectionGuard.reject(request, Reason.UNKNOWN_ISSUER);
             return null;
         }
 
-        Map<String, JwtDecoder> decoders = tenantService.getJwtDecoders(); // Note: JwtDecoder, not Reactive
-        JwtDecoder decoder = decoders.get(issuer);
+        JwtDecoder decoder = decoderRegistry.get(issuer);
         if (decoder == null) {
+            managers.remove(issuer);
+            rejectionGuard.markUnknown(issuer);
+            rejectionGuard.reject(request, Reason.UNKNOWN_ISSUER);
             return null;
         }
 
         // Return manager for this specific tenant's decoder
-        return new JwtAuthenticationProvider(decoder)::authenticate;
+        CachedManager cached = managers.get(issuer);
+        if (cached == null || cached.decoder() != decoder) {
+            cached = managers.compute(issuer, (key, existing) ->
+                    existing != null && existing.decoder() == decoder
+                            ? existing
+                            : new CachedManager(decoder, createManager(decoder)));
+        }
+        return cached.manager();
     }
 
-    private String extractIssuer(String token) {
-        try {
-            String[] parts = token.split("\\.");
-            if (parts.length < 2) return null;
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfigChanged(AuthProviderConfigChangedEvent event) {
+        if (event.issuerUri() != null) {
+            managers.remove(event.issuerUri());
+        }
+    }
 
-            String payload = parts[1];
-            // Add padding if needed
-            while (payload.length() % 4 != 0) {
-                payload += "=";
-            }
+    private AuthenticationManager createManager(JwtDecoder decoder) {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(decoder);
+        provider.setJwtAuthenticationConverter(converter);
+        return provider::authenticate;
+    }
 
-            String decoded = new String(
-                    Base64.getUrlDecoder().decode(payload),
-                    StandardCharsets.UTF_8
-            );
+    /**
+     * Authorities mapping shared by every tenant: OAuth2 scopes plus Keycloak client roles.
+     * It does not depend on the issuer, so it is built once.
+     */
+    private static JwtAuthenticationConverter createConverter() {
+        JwtGrantedAuthoritiesConverter scopes = new JwtGrantedAuthoritiesConverter();
+        KeycloakRolesConverter roles = new KeycloakRolesConverter();
 
-            JsonNode node = objectMapper.readTree(decoded);
-            return node.has("iss") ? node.get("iss").asText() : null;
-        } catch (Exception e) {
-            return null;
-        }
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            Collection<GrantedAuthority> authorities = new ArrayList<>(scopes.convert(jwt));
+            authorities.addAll(roles.convert(jwt));
+            return authorities;
+        });
+        return converter;
+    }
+
+    private record CachedManager(JwtDecoder decoder, AuthenticationManager manager) {
     }
-}
\ No newline at end of file
+}
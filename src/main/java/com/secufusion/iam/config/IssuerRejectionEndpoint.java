@@ -0,0 +1,31 @@
+package com.secufusion.iam.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jwtrejections}: top source IPs sending tokens rejected before verification.
+ */
+@Component
+@Endpoint(id = "jwtrejections")
+public class IssuerRejectionEndpoint {
+
+    private final IssuerRejectionGuard guard;
+
+    public IssuerRejectionEndpoint(IssuerRejectionGuard guard) {
+        this.guard = guard;
+    }
+
+    @ReadOperation
+    public Map<String, Object> rejections(@Nullable Integer limit) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("unknownIssuersCached", guard.unknownIssuerCount());
+        body.put("topSourceIps", guard.topRejectedIps(limit != null ? limit : 20));
+        return body;
+    }
+}
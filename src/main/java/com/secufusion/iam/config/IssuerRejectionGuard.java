@@ -0,0 +1,109 @@
+package com.secufusion.iam.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.secufusion.iam.event.AuthProviderConfigChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cheap rejection of bearer tokens that cannot belong to any tenant.
+ * <p>
+ * Issuers outside {@code iam.jwt.trusted-issuer-prefix} are refused without touching the
+ * registry, and issuers the registry could not resolve are remembered for a short TTL so
+ * repeated junk does not reach the database. Rejections are counted per reason and per
+ * source IP; the per-IP table is bounded and exposed through {@link IssuerRejectionEndpoint}.
+ */
+@Slf4j
+@Component
+public class IssuerRejectionGuard {
+
+    public enum Reason {
+        MALFORMED, UNTRUSTED_ISSUER, UNKNOWN_ISSUER
+    }
+
+    private final String trustedIssuerPrefix;
+    private final Cache<String, Boolean> unknownIssuers;
+    private final Cache<String, AtomicLong> rejectionsByIp;
+    private final Map<Reason, Counter> rejections = new EnumMap<>(Reason.class);
+
+    public IssuerRejectionGuard(MeterRegistry meterRegistry,
+                                @Value("${iam.jwt.trusted-issuer-prefix:${keycloak.admin.server-url}/realms/}") String trustedIssuerPrefix,
+                                @Value("${iam.jwt.unknown-issuer-cache.max-size:10000}") long unknownMaxSize,
+                                @Value("${iam.jwt.unknown-issuer-cache.ttl:PT30S}") Duration unknownTtl,
+                                @Value("${iam.jwt.rejections.max-tracked-ips:10000}") long maxTrackedIps) {
+        this.trustedIssuerPrefix = trustedIssuerPrefix;
+        this.unknownIssuers = Caffeine.newBuilder()
+                .maximumSize(unknownMaxSize)
+                .expireAfterWrite(unknownTtl)
+                .build();
+        this.rejectionsByIp = Caffeine.newBuilder()
+                .maximumSize(maxTrackedIps)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        for (Reason reason : Reason.values()) {
+            rejections.put(reason, Counter.builder("iam.jwt.rejections")
+                    .tag("reason", reason.name().toLowerCase())
+                    .description("Bearer tokens rejected before signature verification")
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean isTrusted(String issuer) {
+        return issuer.startsWith(trustedIssuerPrefix);
+    }
+
+    public boolean isKnownUnknown(String issuer) {
+        return unknownIssuers.getIfPresent(issuer) != null;
+    }
+
+    public void markUnknown(String issuer) {
+        unknownIssuers.put(issuer, Boolean.TRUE);
+    }
+
+    public void reject(HttpServletRequest request, Reason reason) {
+        rejections.get(reason).increment();
+        String ip = request.getRemoteAddr();
+        if (ip != null) {
+            rejectionsByIp.get(ip, k -> new AtomicLong()).incrementAndGet();
+        }
+        log.debug("Rejected bearer token. reason={}, ip={}", reason, ip);
+    }
+
+    /**
+     * Source IPs with the most rejections, highest first.
+     */
+    public Map<String, Long> topRejectedIps(int limit) {
+        List<Map.Entry<String, AtomicLong>> entries = rejectionsByIp.asMap().entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, AtomicLong> e) -> e.getValue().get()).reversed())
+                .limit(limit)
+                .toList();
+        Map<String, Long> top = new LinkedHashMap<>();
+        entries.forEach(e -> top.put(e.getKey(), e.getValue().get()));
+        return top;
+    }
+
+    public long unknownIssuerCount() {
+        return unknownIssuers.estimatedSize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfigChanged(AuthProviderConfigChangedEvent event) {
+        if (event.issuerUri() != null) {
+            unknownIssuers.invalidate(event.issuerUri());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.secufusion.iam.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.secufusion.iam.event.JwksRotatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Shared JWKS store for every tenant realm.
+ * <p>
+ * Key sets are prefetched in the background when an issuer is registered and refreshed in the
+ * background before {@code iam.jwks.refresh-interval} elapses. When a token arrives before the
+ * key set has loaded, or carries an unknown {@code kid}, {@link #sourceFor} fetches synchronously
+ * under a per-issuer lock, so concurrent requests share one fetch; unknown kids trigger at most
+ * one such fetch per {@code iam.jwks.min-refresh-interval}. A failed fetch keeps the last good
+ * key set; an issuer whose keys never loaded fails fast until the same interval has passed since
+ * its last failure, instead of blocking every request on an unreachable endpoint.
+ */
+@Slf4j
+@Component
+public class JwksKeyStore {
+
+    private final ApplicationEventPublisher publisher;
+    private final RestTemplate restTemplate;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+
+    private final Map<String, IssuerKeys> keysByIssuer = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread t = new Thread(r, "jwks-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Counter fetchSuccess;
+    private final Counter fetchFailure;
+    private final Counter unknownKid;
+
+    public JwksKeyStore(ApplicationEventPublisher publisher,
+                        MeterRegistry meterRegistry,
+                        @Value("${iam.jwks.refresh-interval:PT5M}") Duration refreshInterval,
+                        @Value("${iam.jwks.min-refresh-interval:PT30S}") Duration minRefreshInterval,
+                        @Value("${iam.jwks.connect-timeout:PT2S}") Duration connectTimeout,
+                        @Value("${iam.jwks.read-timeout:PT5S}") Duration readTimeout) {
+        this.publisher = publisher;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeout);
+        factory.setReadTimeout(readTimeout);
+        this.restTemplate = new RestTemplate(factory);
+
+        this.fetchSuccess = Counter.builder("iam.jwks.fetches").tag("result", "success").register(meterRegistry);
+        this.fetchFailure = Counter.builder("iam.jwks.fetches").tag("result", "failure").register(meterRegistry);
+        this.unknownKid = Counter.builder("iam.jwks.unknown-kid").register(meterRegistry);
+        Gauge.builder("iam.jwks.issuers", keysByIssuer, Map::size).register(meterRegistry);
+
+        long checkMillis = Math.max(1000, refreshInterval.toMillis() / 4);
+        scheduler.scheduleWithFixedDelay(this::refreshDue, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers (or re-points) an issuer and schedules an immediate background prefetch.
+     */
+    public void register(String issuer, String jwkSetUri) {
+        IssuerKeys keys = keysByIssuer.compute(issuer, (k, existing) ->
+                existing != null && existing.jwkSetUri.equals(jwkSetUri) ? existing : new IssuerKeys(k, jwkSetUri));
+        if (keys.keySet == null) {
+            requestRefresh(keys);
+        }
+    }
+
+    public void unregister(String issuer) {
+        keysByIssuer.remove(issuer);
+    }
+
+    /**
+     * Key source for the issuer's decoder. Keys are served from memory; a miss fetches the key
+     * set once, on the calling thread, and selects again.
+     */
+    public JWKSource<SecurityContext> sourceFor(String issuer) {
+        return (JWKSelector selector, SecurityContext context) -> {
+            IssuerKeys keys = keysByIssuer.get(issuer);
+            if (keys == null) {
+                throw new KeySourceException("No key set registered for issuer " + issuer);
+            }
+            JWKSet current = keys.keySet;
+            Instant attempt = keys.lastAttempt;
+            List<JWK> matches = current != null ? selector.select(current) : List.of();
+            if (!matches.isEmpty()) {
+                return matches;
+            }
+            Instant failed = keys.lastFailure;
+            if (current == null && failed != null && failed.plus(minRefreshInterval).isAfter(Instant.now())) {
+                throw new KeySourceException("JWKS for issuer " + issuer + " unavailable since " + failed);
+            }
+            unknownKid.increment();
+            JWKSet refreshed = fetchNow(keys, current, attempt);
+            return refreshed != null ? selector.select(refreshed) : List.of();
+        };
+    }
+
+    /**
+     * Fetches on the calling thread unless another thread already fetched since the caller
+     * looked ({@code seen}/{@code seenAttempt}) or the last attempt, successful or not, was
+     * within the minimum refresh interval.
+     */
+    private JWKSet fetchNow(IssuerKeys keys, JWKSet seen, Instant seenAttempt) {
+        keys.fetchLock.lock();
+        try {
+            if (keys.keySet != seen || !Objects.equals(keys.lastAttempt, seenAttempt)) {
+                return keys.keySet;
+            }
+            Instant now = Instant.now();
+            if (seenAttempt != null && seenAttempt.plus(minRefreshInterval).isAfter(now)) {
+                return seen;
+            }
+            keys.lastAttempt = now;
+            fetch(keys);
+            return keys.keySet;
+        } finally {
+            keys.fetchLock.unlock();
+        }
+    }
+
+    private void refreshDue() {
+        Instant dueBefore = Instant.now().minus(refreshInterval);
+        for (IssuerKeys keys : keysByIssuer.values()) {
+            if (keys.fetchedAt == null || keys.fetchedAt.isBefore(dueBefore)) {
+                requestRefresh(keys);
+            }
+        }
+    }
+
+    private void requestRefresh(IssuerKeys keys) {
+        if (!keys.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.execute(() -> {
+            keys.fetchLock.lock();
+            try {
+                keys.lastAttempt = Instant.now();
+                fetch(keys);
+            } finally {
+                keys.fetchLock.unlock();
+                keys.refreshing.set(false);
+            }
+        });
+    }
+
+    private void fetch(IssuerKeys keys) {
+        try {
+            String body = restTemplate.getForObject(keys.jwkSetUri, String.class);
+            JWKSet fetched = JWKSet.parse(body);
+            JWKSet previous = keys.keySet;
+            keys.keySet = fetched;
+            keys.fetchedAt = Instant.now();
+            keys.lastFailure = null;
+            fetchSuccess.increment();
+            log.debug("Fetched JWKS for issuer={} keys={}", keys.issuer, fetched.getKeys().size());
+
+            if (previous != null && !kids(previous).equals(kids(fetched))) {
+                log.info("JWKS rotated for issuer={}", keys.issuer);
+                publisher.publishEvent(new JwksRotatedEvent(keys.issuer));
+            }
+        } catch (Exception e) {
+            keys.lastFailure = Instant.now();
+            fetchFailure.increment();
+            log.warn("Failed to fetch JWKS for issuer={} from {}, keeping last good key set: {}",
+                    keys.issuer, keys.jwkSetUri, e.getMessage());
+        }
+    }
+
+    private static Set<String> kids(JWKSet set) {
+        return set.getKeys().stream()
+                .map(JWK::toJSONString)
+                .collect(Collectors.toSet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class IssuerKeys {
+        private final String issuer;
+        private final String jwkSetUri;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final ReentrantLock fetchLock = new ReentrantLock();
+        private volatile JWKSet keySet;
+        private volatile Instant fetchedAt;
+        private volatile Instant lastAttempt;
+        private volatile Instant lastFailure;
+
+        private IssuerKeys(String issuer, String jwkSetUri) {
+            this.issuer = issuer;
+            this.jwkSetUri = jwkSetUri;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.secufusion.iam.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.secufusion.iam.entity.AuthProviderConfig;
+import com.secufusion.iam.event.AuthProviderConfigChangedEvent;
+import com.secufusion.iam.repository.AuthProviderConfigRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Long-lived issuer → {@link JwtDecoder} registry.
+ * <p>
+ * The table is loaded once on startup and then kept in sync through
+ * {@link AuthProviderConfigChangedEvent}s, so a request never scans
+ * {@code auth_provider_config} and every decoder keeps its JWKS cache between requests.
+ * A miss falls back to a single indexed lookup by issuer, which picks up configs
+ * written by other instances. Decoders take their keys from the shared {@link JwksKeyStore}.
+ */
+@Slf4j
+@Component
+public class JwtDecoderRegistry {
+
+    private final AuthProviderConfigRepository authProviderConfigRepository;
+    private final JwksKeyStore keyStore;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final Map<String, JwtDecoder> decoders = new ConcurrentHashMap<>();
+    private final Map<UUID, String> issuerByConfig = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile boolean loaded;
+
+    public JwtDecoderRegistry(AuthProviderConfigRepository authProviderConfigRepository,
+                              JwksKeyStore keyStore,
+                              VerifiedTokenCache verifiedTokenCache,
+                              MeterRegistry meterRegistry) {
+        this.authProviderConfigRepository = authProviderConfigRepository;
+        this.keyStore = keyStore;
+        this.verifiedTokenCache = verifiedTokenCache;
+        Gauge.builder("iam.jwt.decoders.size", decoders, Map::size)
+                .description("Number of issuers with a live JwtDecoder")
+                .register(meterRegistry);
+        this.hits = Counter.builder("iam.jwt.decoders.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("iam.jwt.decoders.lookups").tag("result", "miss").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensureLoaded();
+    }
+
+    /**
+     * Returns the decoder for the given issuer, or {@code null} if no tenant uses it.
+     */
+    public JwtDecoder get(String issuer) {
+        ensureLoaded();
+        JwtDecoder decoder = decoders.get(issuer);
+        if (decoder != null) {
+            hits.increment();
+            return decoder;
+        }
+        misses.increment();
+        return authProviderConfigRepository.findFirstByIssuerUri(issuer)
+                .map(this::register)
+                .orElse(null);
+    }
+
+    public int size() {
+        return decoders.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfigChanged(AuthProviderConfigChangedEvent event) {
+        switch (event.type()) {
+            case SAVED -> {
+                String previous = event.authId() != null ? issuerByConfig.get(event.authId()) : null;
+                if (previous != null && !previous.equals(event.issuerUri())) {
+                    remove(previous);
+                }
+                register(event.authId(), event.issuerUri(), event.jwkUri());
+            }
+            case DELETED -> {
+                if (event.authId() != null) {
+                    issuerByConfig.remove(event.authId());
+                }
+                remove(event.issuerUri());
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            authProviderConfigRepository.findAll().forEach(this::register);
+            loaded = true;
+            log.info("JwtDecoder registry loaded. issuers={}", decoders.size());
+        }
+    }
+
+    private JwtDecoder register(AuthProviderConfig cfg) {
+        return register(cfg.getAuthId(), cfg.getIssuerUri(), cfg.getJwkUri());
+    }
+
+    private JwtDecoder register(UUID authId, String issuer, String jwkUri) {
+        if (issuer == null || issuer.isBlank()) {
+            return null;
+        }
+        JwtDecoder decoder = createJwtDecoder(issuer, jwkUri);
+        if (decoder == null) {
+            return null;
+        }
+        if (authId != null) {
+            issuerByConfig.put(authId, issuer);
+        }
+        decoders.put(issuer, decoder);
+        log.debug("Registered JwtDecoder for issuer={}", issuer);
+        return decoder;
+    }
+
+    private void remove(String issuer) {
+        if (issuer != null && decoders.remove(issuer) != null) {
+            keyStore.unregister(issuer);
+            log.debug("Removed JwtDecoder for issuer={}", issuer);
+        }
+    }
+
+    private JwtDecoder createJwtDecoder(String issuer, String jwkUri) {
+        try {
+            String jwkSetUri = jwkUri != null
+                    ? jwkUri
+                    : issuer + "/protocol/openid-connect/certs";
+
+            keyStore.register(issuer, jwkSetUri);
+
+            DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+            processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keyStore.sourceFor(issuer)));
+            // claims are validated by NimbusJwtDecoder's OAuth2TokenValidator, as with withJwkSetUri()
+            processor.setJWTClaimsSetVerifier((claims, context) -> {
+            });
+            return verifiedTokenCache.wrap(issuer, new NimbusJwtDecoder(processor));
+        } catch (Exception e) {
+            // Log error, skip invalid config
+            log.warn("Failed to create JWT decoder for issuer {}: {}", issuer, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,12 +1,29 @@
 package com.secufusion.iam.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
+import jakarta.ws.rs.client.ClientBuilder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient43Engine;
+import org.keycloak.admin.client.JacksonProvider;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.KeycloakBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
 @Configuration
 public class KeycloakAdminConfig {
 
@@ -25,10 +42,65 @@ public class KeycloakAdminConfig {
     @Value("${keycloak.admin.password}")
     private String password;
 
+    // ---------------- HTTP transport ----------------
+    @Value("${keycloak.admin.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${keycloak.admin.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${keycloak.admin.http.connection-ttl:PT5M}")
+    private Duration connectionTtl;
+
+    @Value("${keycloak.admin.http.connect-timeout:PT5S}")
+    private Duration connectTimeout;
+
+    @Value("${keycloak.admin.http.read-timeout:PT30S}")
+    private Duration readTimeout;
+
+    @Value("${keycloak.admin.http.pool-acquire-timeout:PT10S}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${keycloak.admin.http.keep-alive:PT60S}")
+    private Duration keepAlive;
+
+    @Value("${keycloak.admin.http.idle-eviction:PT30S}")
+    private Duration idleEviction;
+
     private Keycloak keycloak;
 
     @Bean
-    public Keycloak keycloakAdminClient() {
+    public Keycloak keycloakAdminClient(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager(
+                connectionTtl.toMillis(), TimeUnit.MILLISECONDS);
+        pool.setMaxTotal(maxConnections);
+        pool.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        bindPoolMetrics(pool, meterRegistry);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) poolAcquireTimeout.toMillis())
+                .build();
+
+        // Honour the server's Keep-Alive header but never hold a socket longer than keep-alive
+        long keepAliveMs = keepAlive.toMillis();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverMs = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverMs > 0 ? Math.min(serverMs, keepAliveMs) : keepAliveMs;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+
+        ResteasyClientBuilder clientBuilder = ((ResteasyClientBuilder) ClientBuilder.newBuilder())
+                .httpEngine(new ApacheHttpClient43Engine(httpClient, true));
+        clientBuilder.register(JacksonProvider.class, 100);
+        ResteasyClient resteasyClient = clientBuilder.build();
+
         this.keycloak = KeycloakBuilder.builder()
                 .serverUrl(serverUrl)
                 .realm(masterRealm)
@@ -36,10 +108,26 @@ public class KeycloakAdminConfig {
                 .username(username)
                 .password(password)
                 .grantType("password")
+                .resteasyClient(resteasyClient)
                 .build();
         return this.keycloak;
     }
 
+    private void bindPoolMetrics(PoolingHttpClientConnectionManager pool, MeterRegistry meterRegistry) {
+        registerPoolGauge(meterRegistry, pool, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, pool, "pending", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, pool, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, pool, "max", PoolStats::getMax);
+    }
+
+    private void registerPoolGauge(MeterRegistry meterRegistry, PoolingHttpClientConnectionManager pool,
+                                   String state, ToIntFunction<PoolStats> stat) {
+        Gauge.builder("keycloak.admin.http.pool.connections", pool, p -> stat.applyAsInt(p.getTotalStats()))
+                .tag("state", state)
+                .description("Keycloak admin client connection pool")
+                .register(meterRegistry);
+    }
+
     @PreDestroy
     public void cleanup() {
         if (this.keycloak != null) {
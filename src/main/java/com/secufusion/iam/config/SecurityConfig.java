@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.secufusion.iam.service.AuthConfigService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -21,11 +22,19 @@ import java.util.*;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Authorities that may call /oauth2/introspect (RFC 7662 §2.1 requires the caller to be
+     * authorized): by default the {@code introspect} scope or an {@code introspection} client role.
+     */
+    @Value("${iam.introspection.required-authorities:SCOPE_introspect,ROLE_introspection}")
+    private String[] introspectionAuthorities;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http, DbJwtAuthenticationManagerResolver resolver) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/oauth2/introspect/**").hasAnyAuthority(introspectionAuthorities)
                         .requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/tenant-config/**").permitAll()
                         .anyRequest().permitAll()
@@ -0,0 +1,140 @@
+package com.secufusion.iam.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.secufusion.iam.event.AuthProviderConfigChangedEvent;
+import com.secufusion.iam.event.JwksRotatedEvent;
+import com.secufusion.iam.util.TokenDigest;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in cache of already verified access tokens ({@code iam.jwt.verified-cache.enabled}).
+ * <p>
+ * The UI replays the same token many times during its lifetime; with the cache on, only the
+ * first presentation pays for RSA verification and claim validation. Entries are keyed by a
+ * SHA-256 digest of the raw token, weighted by token size against
+ * {@code iam.jwt.verified-cache.max-bytes}, expire at the token's {@code exp}, and are dropped
+ * for an issuer whenever its keys rotate or its auth config changes.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    /** Rough per-entry overhead on top of the token text (key, Jwt, claim map). */
+    private static final int ENTRY_OVERHEAD_BYTES = 1024;
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+    private final Timer verifyTimer;
+    private final AtomicLong savedNanos = new AtomicLong();
+    private final AtomicLong verifyNanosTotal = new AtomicLong();
+    private final AtomicLong verifyCount = new AtomicLong();
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${iam.jwt.verified-cache.enabled:false}") boolean enabled,
+                              @Value("${iam.jwt.verified-cache.max-bytes:67108864}") long maxBytes,
+                              @Value("${iam.jwt.verified-cache.default-ttl:PT1M}") Duration defaultTtl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry e) -> e.weight())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry e, long currentTime) {
+                        Instant exp = e.jwt().getExpiresAt();
+                        Duration ttl = exp != null ? Duration.between(Instant.now(), exp) : defaultTtl;
+                        return Math.max(0, ttl.toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry e, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry e, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        this.verifyTimer = Timer.builder("iam.jwt.verify")
+                .description("Time spent verifying tokens that missed the verified-token cache")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+        FunctionCounter.builder("iam.jwt.verified-cache.cpu-saved", savedNanos, n -> n.get() / 1_000_000_000d)
+                .baseUnit("seconds")
+                .description("Estimated verification time avoided by cache hits")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wraps the issuer's decoder with the cache, or returns it unchanged when the cache is off.
+     */
+    public JwtDecoder wrap(String issuer, JwtDecoder delegate) {
+        if (!enabled) {
+            return delegate;
+        }
+        return token -> decode(issuer, delegate, token);
+    }
+
+    private Jwt decode(String issuer, JwtDecoder delegate, String token) throws JwtException {
+        String key = TokenDigest.sha256(token);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.issuer().equals(issuer)) {
+            long count = verifyCount.get();
+            if (count > 0) {
+                savedNanos.addAndGet(verifyNanosTotal.get() / count);
+            }
+            return cached.jwt();
+        }
+
+        long start = System.nanoTime();
+        Jwt jwt = delegate.decode(token);
+        long elapsed = System.nanoTime() - start;
+        verifyTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        verifyNanosTotal.addAndGet(elapsed);
+        verifyCount.incrementAndGet();
+
+        cache.put(key, new Entry(issuer, jwt, token.length() * 2 + ENTRY_OVERHEAD_BYTES));
+        return jwt;
+    }
+
+    @EventListener
+    public void onKeysRotated(JwksRotatedEvent event) {
+        invalidateIssuer(event.issuer());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfigChanged(AuthProviderConfigChangedEvent event) {
+        invalidateIssuer(event.issuerUri());
+    }
+
+    private void invalidateIssuer(String issuer) {
+        if (issuer != null && enabled) {
+            cache.asMap().values().removeIf(e -> issuer.equals(e.issuer()));
+            log.debug("Invalidated verified tokens for issuer={}", issuer);
+        }
+    }
+
+    private record Entry(String issuer, Jwt jwt, int weight) {
+    }
+}
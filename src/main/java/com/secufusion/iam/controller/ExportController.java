@@ -0,0 +1,68 @@
+package com.secufusion.iam.controller;
+
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.service.ExportService;
+import com.secufusion.iam.service.ExportService.Format;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streaming exports. {@code format=ndjson} (default) or {@code format=csv} (gzip-compressed);
+ * {@code tenantId} picks the subtree root, defaulting to the caller's tenant.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/exports")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(HttpServletRequest request,
+                                                             @RequestParam(required = false) String tenantId,
+                                                             @RequestParam(defaultValue = "ndjson") String format) {
+        Format f = parseFormat(format);
+        log.info("Request to export users. tenantId={}, format={}", tenantId, f);
+        return respond("users", f, exportService.exportUsers(request, tenantId, f));
+    }
+
+    @GetMapping("/tenants")
+    public ResponseEntity<StreamingResponseBody> exportTenants(HttpServletRequest request,
+                                                               @RequestParam(required = false) String tenantId,
+                                                               @RequestParam(defaultValue = "ndjson") String format) {
+        Format f = parseFormat(format);
+        log.info("Request to export tenants. tenantId={}, format={}", tenantId, f);
+        return respond("tenants", f, exportService.exportTenants(request, tenantId, f));
+    }
+
+    private static Format parseFormat(String format) {
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return Format.NDJSON;
+        }
+        if ("csv".equalsIgnoreCase(format)) {
+            return Format.CSV_GZIP;
+        }
+        throw new KeycloakOperationException("INVALID_FORMAT", 1034, "format must be ndjson or csv.");
+    }
+
+    private static ResponseEntity<StreamingResponseBody> respond(String name, Format format, StreamingResponseBody body) {
+        if (format == Format.CSV_GZIP) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/gzip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(name + ".csv.gz").build().toString())
+                    .body(body);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+}
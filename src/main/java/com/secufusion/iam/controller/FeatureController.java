@@ -2,6 +2,7 @@ package com.secufusion.iam.controller;
 
 import com.secufusion.iam.dto.CreateFeatureRequest;
 import com.secufusion.iam.dto.FeatureResponse;
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.service.FeatureService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +28,12 @@ public class FeatureController {
         return ResponseEntity.ok(featureService.getAllFeatures());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<FeatureResponse>> getFeaturesPage(@RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(featureService.getFeaturesPage(cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FeatureResponse> getFeature(@PathVariable Long id) {
         return ResponseEntity.ok(featureService.getFeature(id));
@@ -1,6 +1,7 @@
 package com.secufusion.iam.controller;
 
 import com.secufusion.iam.dto.GroupsDropdown;
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.entity.Groups;
 import com.secufusion.iam.service.GroupService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +36,12 @@ public class GroupController {
         return ResponseEntity.ok(groups);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<Groups>> getGroupsPage(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size){
+        return ResponseEntity.ok(groupService.getGroupsPage(cursor, size));
+    }
+
     //dropdown endpoint for groups
     @GetMapping("/dropdown")
     public ResponseEntity<List<GroupsDropdown>> getGroupsForDropdown(){
@@ -0,0 +1,43 @@
+package com.secufusion.iam.controller;
+
+import com.secufusion.iam.dto.BatchIntrospectionRequest;
+import com.secufusion.iam.dto.IntrospectionResponse;
+import com.secufusion.iam.service.TokenIntrospectionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/oauth2/introspect")
+public class IntrospectionController {
+
+    @Autowired
+    private TokenIntrospectionService introspectionService;
+
+    @Value("${iam.introspection.batch-max-size:100}")
+    private int batchMaxSize;
+
+    @PostMapping(consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<IntrospectionResponse> introspect(@RequestParam("token") String token) {
+        return ResponseEntity.ok(introspectionService.introspect(token));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<IntrospectionResponse>> introspectBatch(@RequestBody BatchIntrospectionRequest request) {
+        List<String> tokens = request.getTokens();
+        if (tokens == null || tokens.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        if (tokens.size() > batchMaxSize) {
+            log.warn("Introspection batch too large: {} > {}", tokens.size(), batchMaxSize);
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(introspectionService.introspectAll(tokens));
+    }
+}
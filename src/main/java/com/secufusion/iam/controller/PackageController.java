@@ -1,5 +1,6 @@
 package com.secufusion.iam.controller;
 
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.entity.Package;
 import com.secufusion.iam.service.PackageService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,6 +43,12 @@ public class PackageController {
         return ResponseEntity.ok(packageService.getAllPackages());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<Package>> getPackagesPage(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(packageService.getPackagesPage(cursor, size));
+    }
+
 
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deletePackage(@PathVariable Long id) {
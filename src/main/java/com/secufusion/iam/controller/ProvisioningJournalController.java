@@ -0,0 +1,41 @@
+package com.secufusion.iam.controller;
+
+import com.secufusion.iam.entity.ProvisioningStepJournal;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.repository.ProvisioningStepJournalRepository.StepLatency;
+import com.secufusion.iam.service.ProvisioningJournal;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/provisioning")
+public class ProvisioningJournalController {
+
+    @Autowired
+    private ProvisioningJournal provisioningJournal;
+
+    /**
+     * Latency percentiles per provisioning step, e.g. {@code ?window=PT24H} (default) or {@code P7D}.
+     */
+    @GetMapping("/steps/latency")
+    public ResponseEntity<List<StepLatency>> getStepLatency(@RequestParam(defaultValue = "PT24H") String window) {
+        Duration duration;
+        try {
+            duration = Duration.parse(window);
+        } catch (DateTimeParseException e) {
+            throw new KeycloakOperationException("INVALID_WINDOW", 1038, "window must be a positive ISO-8601 duration.");
+        }
+        return ResponseEntity.ok(provisioningJournal.latencies(duration));
+    }
+
+    @GetMapping("/journal/{tenantId}")
+    public ResponseEntity<List<ProvisioningStepJournal>> getJournal(HttpServletRequest request, @PathVariable String tenantId) {
+        return ResponseEntity.ok(provisioningJournal.entriesFor(request, tenantId));
+    }
+}
@@ -1,5 +1,6 @@
 package com.secufusion.iam.controller;
 
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.dto.RoleDropdownResponse;
 import com.secufusion.iam.entity.Roles;
 import com.secufusion.iam.service.RoleService;
@@ -30,6 +31,12 @@ public class RolesController {
         return ResponseEntity.ok(rolesList);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<Roles>> getRolesPage(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(roleService.getRolesPage(cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Roles> getRoleById(@PathVariable String id) {
         Roles role = roleService.getRoleById(id);
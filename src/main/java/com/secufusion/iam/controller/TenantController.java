@@ -1,16 +1,28 @@
 package com.secufusion.iam.controller;
 
+import com.secufusion.iam.dto.AvailabilityResponse;
 import com.secufusion.iam.dto.CreateTenantRequest;
+import com.secufusion.iam.dto.PageResponse;
+import com.secufusion.iam.dto.ProvisioningJobStatus;
+import com.secufusion.iam.dto.TenantDeletionJobStatus;
 import com.secufusion.iam.dto.TenantResponse;
 import com.secufusion.iam.entity.TenantType;
+import com.secufusion.iam.service.TenantBulkOnboardingService;
+import com.secufusion.iam.service.TenantDeletionService;
+import com.secufusion.iam.service.TenantProvisioningExecutor;
 import com.secufusion.iam.service.TenantService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.List;
 import java.util.Map;
@@ -24,22 +36,71 @@ public class TenantController {
     @Autowired
     private TenantService tenantService;
 
+    @Autowired
+    private TenantProvisioningExecutor provisioningExecutor;
+
+    @Autowired
+    private TenantBulkOnboardingService bulkOnboardingService;
+
+    @Autowired
+    private TenantDeletionService deletionService;
+
 
     @PostMapping
-    public ResponseEntity<TenantResponse> createTenant(HttpServletRequest request, @Valid @RequestBody CreateTenantRequest req) {
-        log.info("Request to create tenant realm={}", req.getTenantName());
+    public ResponseEntity<?> createTenant(HttpServletRequest request,
+                                          @Valid @RequestBody CreateTenantRequest req,
+                                          @RequestParam(defaultValue = "false") boolean async) {
+        log.info("Request to create tenant realm={}, async={}", req.getTenantName(), async);
+        if (async) {
+            ProvisioningJobStatus job = provisioningExecutor.submit(request, req);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/tenants/jobs/{id}")
+                            .buildAndExpand(job.getJobId())
+                            .toUri())
+                    .body(job);
+        }
         TenantResponse resp = tenantService.createTenant(request,req);
         return ResponseEntity.ok(resp);
     }
 
+    @PostMapping(value = "/bulk",
+            consumes = {"application/x-ndjson", "text/csv"},
+            produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> bulkCreate(HttpServletRequest request,
+                                                            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        boolean csv = contentType.toLowerCase().startsWith("text/csv");
+        log.info("Request to bulk create tenants. format={}", csv ? "csv" : "ndjson");
+        StreamingResponseBody body = bulkOnboardingService.onboard(request, request.getInputStream(), csv);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ProvisioningJobStatus> getProvisioningJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(provisioningExecutor.getJob(jobId));
+    }
+
     @GetMapping("/id")
     public ResponseEntity<TenantResponse> getTenant(HttpServletRequest request, @RequestParam String id) {
         return ResponseEntity.ok(tenantService.getTenantIfParent(request, id));
     }
 
     @GetMapping
-    public ResponseEntity<List<TenantResponse>> getAll(HttpServletRequest request){
-        return ResponseEntity.ok(tenantService.getTenantHierarchy(request));
+    public ResponseEntity<List<TenantResponse>> getAll(HttpServletRequest request,
+                                                       @RequestParam(required = false) Integer maxDepth,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(defaultValue = "0") int offset){
+        return ResponseEntity.ok(tenantService.getTenantHierarchy(request, maxDepth, limit, offset));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<TenantResponse>> getPage(HttpServletRequest request,
+                                                                @RequestParam(required = false) String parentId,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size){
+        return ResponseEntity.ok(tenantService.getTenantsPage(request, parentId, cursor, size));
     }
 
     @PutMapping("/{id}")
@@ -48,11 +109,30 @@ public class TenantController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTenant(@PathVariable String id) {
-        tenantService.deleteTenant(id);
+    public ResponseEntity<?> deleteTenant(HttpServletRequest request,
+                                          @PathVariable String id,
+                                          @RequestParam(defaultValue = "false") boolean async,
+                                          @RequestParam(defaultValue = "false") boolean cascade) {
+        if (async || cascade) {
+            log.info("Request to delete tenant asynchronously. tenantId={}, cascade={}", id, cascade);
+            TenantDeletionJobStatus job = deletionService.submit(request, id, cascade);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/tenants/deletions/{id}")
+                            .buildAndExpand(job.getJobId())
+                            .toUri())
+                    .body(job);
+        }
+        log.info("Request to delete tenant. tenantId={}", id);
+        deletionService.deleteNow(request, id);
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<TenantDeletionJobStatus> getDeletionJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(deletionService.getJob(jobId));
+    }
+
     @GetMapping("/types")
     public ResponseEntity<List<TenantType>> getAllTenantTypes(HttpServletRequest request){
         return ResponseEntity.ok(tenantService.getTenantTypesByTenantType(request));
@@ -63,6 +143,19 @@ public class TenantController {
         return ResponseEntity.ok(tenantService.getTenantBillingTypes());
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(
+            @RequestParam(required = false) String tenantName,
+            @RequestParam(required = false) String domainName,
+            @RequestParam(required = false) String phoneNumber,
+            @RequestParam(required = false) String tenantEmail) {
+        AvailabilityResponse resp = tenantService.checkAvailability(tenantName, domainName, phoneNumber, tenantEmail);
+        if (resp.getFields().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(resp);
+    }
+
     @GetMapping("/check")
     public ResponseEntity<String> checkTenant(
             @RequestParam(required = false) String tenantName,
@@ -1,5 +1,7 @@
 package com.secufusion.iam.controller;
 
+import com.secufusion.iam.dto.AvailabilityResponse;
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.dto.UsersDto;
 import com.secufusion.iam.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -76,6 +78,14 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<UsersDto>> getUsersPage(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
+
+        log.info("API: Fetch users page");
+        return ResponseEntity.ok(userService.getUsersPage(cursor, size));
+    }
+
 
     // ============================================================
     // GET USERS BY TENANT ID
@@ -120,6 +130,17 @@ public class UserController {
         return ResponseEntity.ok(resp);
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String userName,
+                                                                  @RequestParam(required = false) String phoneNumber,
+                                                                  @RequestParam(required = false) String email) {
+        AvailabilityResponse resp = userService.checkAvailability(userName, phoneNumber, email);
+        if (resp.getFields().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(resp);
+    }
+
     @GetMapping("/check")
     public ResponseEntity<String> uniqueValidations(@RequestParam(required = false) String userName,
                                                     @RequestParam(required=false)String phoneNumber,
@@ -0,0 +1,34 @@
+package com.secufusion.iam.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Answer of the combined availability endpoints: one entry per requested field, keyed by the
+ * request parameter name. {@code value} is the value actually checked (e.g. the normalized domain).
+ */
+@Data
+public class AvailabilityResponse {
+
+    private boolean allAvailable = true;
+    private Map<String, FieldAvailability> fields = new LinkedHashMap<>();
+
+    public void add(String field, String value, boolean available) {
+        fields.put(field, new FieldAvailability(value, available));
+        allAvailable &= available;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class FieldAvailability {
+        private String value;
+        private boolean available;
+    }
+}
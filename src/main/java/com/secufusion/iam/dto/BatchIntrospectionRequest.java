@@ -0,0 +1,10 @@
+package com.secufusion.iam.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchIntrospectionRequest {
+    private List<String> tokens;
+}
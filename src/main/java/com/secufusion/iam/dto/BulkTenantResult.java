@@ -0,0 +1,28 @@
+package com.secufusion.iam.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the NDJSON stream returned by {@code POST /tenants/bulk}.
+ * {@code outcome} is SUCCEEDED, FAILED (provisioning error) or REJECTED (failed validation).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkTenantResult {
+    private int row;
+    private String tenantName;
+    private String outcome;
+    private String tenantId;
+    private String status;
+    private String errorCode;
+    private String message;
+
+    public static BulkTenantResult rejected(int row, String tenantName, String errorCode, String message) {
+        return new BulkTenantResult(row, tenantName, "REJECTED", null, null, errorCode, message);
+    }
+}
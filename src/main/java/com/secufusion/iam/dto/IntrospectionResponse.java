@@ -0,0 +1,34 @@
+package com.secufusion.iam.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * RFC 7662 token introspection response, extended with the caller's tenant and the
+ * groups/roles mapped to the user in the local database.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionResponse {
+
+    private boolean active;
+    private String sub;
+    private String iss;
+    private Long exp;
+    private Long iat;
+    @JsonProperty("client_id")
+    private String clientId;
+    private String username;
+    @JsonProperty("tenant_id")
+    private String tenantId;
+    private List<String> groups;
+    private List<String> roles;
+
+    /** A fresh {@code {"active": false}} response; instances are mutable, so none is shared. */
+    public static IntrospectionResponse inactive() {
+        return new IntrospectionResponse();
+    }
+}
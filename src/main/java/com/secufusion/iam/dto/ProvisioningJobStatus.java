@@ -0,0 +1,30 @@
+package com.secufusion.iam.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class ProvisioningJobStatus {
+    private String jobId;
+    private String tenantId;
+    private String tenantName;
+    private String state;
+    private String currentStep;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long durationMs;
+    private List<StepTiming> steps;
+    private String errorCode;
+    private String errorMessage;
+
+    @Data
+    public static class StepTiming {
+        private String step;
+        private Instant startedAt;
+        private Long durationMs;
+        private String outcome;
+    }
+}
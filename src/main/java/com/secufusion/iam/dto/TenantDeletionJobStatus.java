@@ -0,0 +1,23 @@
+package com.secufusion.iam.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+public class TenantDeletionJobStatus {
+    private String jobId;
+    private String rootTenantId;
+    private boolean cascade;
+    private String state;
+    private int tenantsTotal;
+    private int tenantsDeleted;
+    private String currentTenantId;
+    private Map<String, Long> rowsDeleted;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String errorCode;
+    private String errorMessage;
+}
@@ -1,6 +1,7 @@
 package com.secufusion.iam.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.secufusion.iam.entity.Address;
 import lombok.Data;
 
@@ -25,5 +26,8 @@ public class TenantResponse {
     private String status;
     private Instant createdAt;
     private String loginUrl;
+    /** Levels below the caller's tenant; only set on hierarchy listings. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer depth;
 
 }
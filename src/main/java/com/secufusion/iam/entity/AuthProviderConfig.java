@@ -10,6 +10,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "auth_provider_config")
+@EntityListeners(AuthProviderConfigListener.class)
 @Getter
 @Setter
 @Builder
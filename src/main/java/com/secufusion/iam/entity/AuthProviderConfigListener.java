@@ -0,0 +1,34 @@
+package com.secufusion.iam.entity;
+
+import com.secufusion.iam.event.AuthProviderConfigChangedEvent;
+import com.secufusion.iam.event.AuthProviderConfigChangedEvent.ChangeType;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener that turns {@link AuthProviderConfig} writes into application events,
+ * including the ones cascaded from {@link Tenant} (orphan removal on delete).
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthProviderConfigListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    public void afterSave(AuthProviderConfig cfg) {
+        publisher.publishEvent(new AuthProviderConfigChangedEvent(
+                ChangeType.SAVED, cfg.getAuthId(), cfg.getIssuerUri(), cfg.getJwkUri()));
+    }
+
+    @PostRemove
+    public void afterRemove(AuthProviderConfig cfg) {
+        publisher.publishEvent(new AuthProviderConfigChangedEvent(
+                ChangeType.DELETED, cfg.getAuthId(), cfg.getIssuerUri(), cfg.getJwkUri()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.secufusion.iam.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * One attempt of one tenant provisioning step, written as the step starts and completed when it
+ * finishes. Kept independently of the provisioning transaction, so failed attempts are recorded too.
+ */
+@Entity
+@Table(name = "provisioning_step_journal",
+        uniqueConstraints = @UniqueConstraint(name = "uq_psj_tenant_step_attempt",
+                columnNames = {"tenant_id", "step", "attempt"}),
+        indexes = {
+                @Index(name = "idx_psj_tenant", columnList = "tenant_id"),
+                @Index(name = "idx_psj_started", columnList = "started_at")
+        })
+@Data
+public class ProvisioningStepJournal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long pkJournalId;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    private String tenantName;
+
+    @Column(nullable = false)
+    private String step;
+
+    private int attempt;
+
+    /** RUNNING, SUCCEEDED or FAILED */
+    @Column(nullable = false)
+    private String outcome;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private Long durationMs;
+
+    private String errorCode;
+
+    @Column(length = 1000)
+    private String errorMessage;
+}
@@ -0,0 +1,16 @@
+package com.secufusion.iam.event;
+
+import java.util.UUID;
+
+/**
+ * Published whenever an {@link com.secufusion.iam.entity.AuthProviderConfig} row is
+ * inserted, updated or removed. Listeners that keep per-issuer state (decoders,
+ * authentication managers) use it to stay in sync with the table.
+ */
+public record AuthProviderConfigChangedEvent(ChangeType type, UUID authId, String issuerUri, String jwkUri) {
+
+    public enum ChangeType {
+        SAVED,
+        DELETED
+    }
+}
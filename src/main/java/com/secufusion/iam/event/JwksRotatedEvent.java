@@ -0,0 +1,8 @@
+package com.secufusion.iam.event;
+
+/**
+ * Published by {@link com.secufusion.iam.config.JwksKeyStore} when the key set fetched for an
+ * issuer differs from the one it replaces (keys added, removed or rotated).
+ */
+public record JwksRotatedEvent(String issuer) {
+}
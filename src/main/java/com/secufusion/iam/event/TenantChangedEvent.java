@@ -0,0 +1,16 @@
+package com.secufusion.iam.event;
+
+import com.secufusion.iam.entity.Tenant;
+
+/**
+ * Published by {@link com.secufusion.iam.service.TenantService} when a tenant row is created,
+ * updated or deleted, so in-memory views of the tenant table can follow along after commit.
+ */
+public record TenantChangedEvent(ChangeType type, Tenant tenant) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,17 @@
+package com.secufusion.iam.event;
+
+import com.secufusion.iam.entity.User;
+
+/**
+ * Published when a local user row is created, updated or deleted, at the point of the write
+ * (listeners that must not miss uncommitted values, such as the availability index, react
+ * immediately; others can use {@code @TransactionalEventListener}).
+ */
+public record UserChangedEvent(ChangeType type, User user) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
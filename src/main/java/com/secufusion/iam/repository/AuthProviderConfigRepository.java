@@ -11,4 +11,6 @@ import java.util.Optional;
 @Repository
 public interface AuthProviderConfigRepository extends JpaRepository<AuthProviderConfig, Serializable> {
     Optional<AuthProviderConfig> findByTenant(Tenant tenant);
+
+    Optional<AuthProviderConfig> findFirstByIssuerUri(String issuerUri);
 }
@@ -1,11 +1,19 @@
 package com.secufusion.iam.repository;
 
 import com.secufusion.iam.entity.Feature;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface FeatureRepository extends JpaRepository<Feature, Long> {
     boolean existsByFeatureNameIgnoreCase(String featureName);
 
+    // ---- keyset pages, ordered by primary key ----
+
+    List<Feature> findAllByOrderByPkFeatureIDAsc(Limit limit);
+
+    List<Feature> findByPkFeatureIDGreaterThanOrderByPkFeatureIDAsc(Long after, Limit limit);
 }
@@ -1,10 +1,12 @@
 package com.secufusion.iam.repository;
 
 import com.secufusion.iam.entity.Groups;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,5 +20,10 @@ public interface GroupsRepository extends JpaRepository<Groups, Serializable> {
     );
 
     Optional<Groups> existsByName(String name);
-}
 
+    // ---- keyset pages, ordered by primary key ----
+
+    List<Groups> findAllByOrderByPkGroupIdAsc(Limit limit);
+
+    List<Groups> findByPkGroupIdGreaterThanOrderByPkGroupIdAsc(String after, Limit limit);
+}
@@ -1,13 +1,20 @@
 package com.secufusion.iam.repository;
 
 import com.secufusion.iam.entity.Package;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.io.Serializable;
+import java.util.List;
 
 @Repository
 public interface PackageRepository extends JpaRepository<Package, Serializable> {
     boolean existsByPackageNameIgnoreCase(String packageName);
 
+    // ---- keyset pages, ordered by primary key ----
+
+    List<Package> findAllByOrderByPkPackageIdAsc(Limit limit);
+
+    List<Package> findByPkPackageIdGreaterThanOrderByPkPackageIdAsc(Long after, Limit limit);
 }
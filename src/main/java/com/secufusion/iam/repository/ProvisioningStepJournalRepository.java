@@ -0,0 +1,47 @@
+package com.secufusion.iam.repository;
+
+import com.secufusion.iam.entity.ProvisioningStepJournal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProvisioningStepJournalRepository extends JpaRepository<ProvisioningStepJournal, Long> {
+
+    List<ProvisioningStepJournal> findByTenantIdOrderByStartedAtAsc(String tenantId);
+
+    long countByTenantIdAndStep(String tenantId, String step);
+
+    /**
+     * Latency distribution per step over finished attempts started since {@code since}.
+     */
+    @Query(value = """
+            SELECT j.step                                                              AS "step",
+                   count(*)                                                            AS "count",
+                   count(*) FILTER (WHERE j.outcome = 'FAILED')                        AS "failures",
+                   percentile_cont(0.50) WITHIN GROUP (ORDER BY j.duration_ms)         AS "p50Ms",
+                   percentile_cont(0.95) WITHIN GROUP (ORDER BY j.duration_ms)         AS "p95Ms",
+                   percentile_cont(0.99) WITHIN GROUP (ORDER BY j.duration_ms)         AS "p99Ms",
+                   max(j.duration_ms)                                                  AS "maxMs"
+              FROM provisioning_step_journal j
+             WHERE j.started_at >= :since
+               AND j.outcome <> 'RUNNING'
+             GROUP BY j.step
+             ORDER BY j.step
+            """, nativeQuery = true)
+    List<StepLatency> findStepLatencies(@Param("since") Instant since);
+
+    interface StepLatency {
+        String getStep();
+        Long getCount();
+        Long getFailures();
+        Double getP50Ms();
+        Double getP95Ms();
+        Double getP99Ms();
+        Long getMaxMs();
+    }
+}
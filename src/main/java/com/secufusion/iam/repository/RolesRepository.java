@@ -1,10 +1,12 @@
 package com.secufusion.iam.repository;
 
 import com.secufusion.iam.entity.Roles;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +14,10 @@ public interface RolesRepository extends JpaRepository<Roles, String> {
     Optional<Roles> findByNameAndTenant_TenantID(String name, String tenantId);
 
     Optional<Roles> existsByNameAndTenant_TenantID(String name, String tenantID);
-}
 
+    // ---- keyset pages, ordered by primary key ----
+
+    List<Roles> findAllByOrderByPkRoleIdAsc(Limit limit);
+
+    List<Roles> findByPkRoleIdGreaterThanOrderByPkRoleIdAsc(String after, Limit limit);
+}
@@ -1,12 +1,20 @@
 package com.secufusion.iam.repository;
 
 import com.secufusion.iam.entity.Tenant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TenantRepository extends JpaRepository<Tenant, Serializable> {
@@ -31,4 +39,126 @@ public interface TenantRepository extends JpaRepository<Tenant, Serializable> {
     Optional<Tenant> findByEmail(String email);
 
     List<Tenant> findByParentTenantId(String parentTenantId);
+
+    /**
+     * Every descendant of {@code rootTenantId} (the root itself excluded) with its depth below the
+     * root, in one statement. Rows come in depth-first pre-order (the order the old per-node walk
+     * produced). A null {@code maxDepth} or {@code limit} means unbounded; the path check stops
+     * the walk on a corrupt parent cycle.
+     */
+    @Query(value = """
+            WITH RECURSIVE subtree AS (
+                SELECT t.tenantid AS tenant_id, 1 AS depth, ARRAY[t.tenantid::text] AS path
+                  FROM tenant t
+                 WHERE t.parent_tenant_id = :rootTenantId
+                UNION ALL
+                SELECT c.tenantid, s.depth + 1, s.path || c.tenantid::text
+                  FROM tenant c
+                  JOIN subtree s ON c.parent_tenant_id = s.tenant_id
+                 WHERE (CAST(:maxDepth AS integer) IS NULL OR s.depth < CAST(:maxDepth AS integer))
+                   AND NOT c.tenantid::text = ANY (s.path)
+            )
+            SELECT tenant_id AS "tenantId", depth AS "depth"
+              FROM subtree
+             ORDER BY path
+             LIMIT CAST(:limit AS integer) OFFSET :offset
+            """, nativeQuery = true)
+    List<SubtreeNode> findSubtree(@Param("rootTenantId") String rootTenantId,
+                                  @Param("maxDepth") Integer maxDepth,
+                                  @Param("limit") Integer limit,
+                                  @Param("offset") int offset);
+
+    List<Tenant> findByTenantIDIn(Collection<String> tenantIds);
+
+    interface SubtreeNode {
+        String getTenantId();
+        Integer getDepth();
+    }
+
+    @Query("select t.tenantID as tenantId, t.parentTenantId as parentTenantId from Tenant t")
+    List<TenantLink> findAllLinks();
+
+    interface TenantLink {
+        String getTenantId();
+        String getParentTenantId();
+    }
+
+    /**
+     * Every uniqueness check for a new tenant in one round trip; null parameters never conflict.
+     */
+    @Query(value = """
+            SELECT
+                EXISTS (SELECT 1 FROM tenant t WHERE t.tenant_name = CAST(:tenantName AS varchar)) AS "tenantNameTaken",
+                EXISTS (SELECT 1 FROM tenant t WHERE t.domain = CAST(:domain AS varchar))          AS "domainTaken",
+                EXISTS (SELECT 1 FROM tenant t WHERE t.phone_no = CAST(:phoneNo AS varchar))       AS "phoneNoTaken",
+                EXISTS (SELECT 1 FROM tenant t WHERE t.email = CAST(:email AS varchar))            AS "emailTaken",
+                EXISTS (SELECT 1 FROM users u WHERE u.email = CAST(:adminEmail AS varchar))        AS "adminEmailTaken",
+                EXISTS (SELECT 1 FROM users u WHERE u.phone_no = CAST(:adminPhoneNo AS varchar))   AS "adminPhoneNoTaken",
+                EXISTS (SELECT 1
+                          FROM region r
+                          JOIN country c ON c.region_id = r.pk_region_id
+                          JOIN states s  ON s.country_id = c.pk_country_id
+                          JOIN cities ci ON ci.state_id = s.pk_state_id
+                         WHERE r.region_name = CAST(:region AS varchar)
+                           AND c.country_name = CAST(:country AS varchar)
+                           AND s.state_name   = CAST(:state AS varchar)
+                           AND ci.city_name   = CAST(:city AS varchar))                            AS "regionValid"
+            """, nativeQuery = true)
+    NewTenantConflicts findNewTenantConflicts(@Param("tenantName") String tenantName,
+                                              @Param("domain") String domain,
+                                              @Param("phoneNo") String phoneNo,
+                                              @Param("email") String email,
+                                              @Param("adminEmail") String adminEmail,
+                                              @Param("adminPhoneNo") String adminPhoneNo,
+                                              @Param("region") String region,
+                                              @Param("country") String country,
+                                              @Param("state") String state,
+                                              @Param("city") String city);
+
+    interface NewTenantConflicts {
+        Boolean getTenantNameTaken();
+        Boolean getDomainTaken();
+        Boolean getPhoneNoTaken();
+        Boolean getEmailTaken();
+        Boolean getAdminEmailTaken();
+        Boolean getAdminPhoneNoTaken();
+        Boolean getRegionValid();
+    }
+
+    // ---- full scans for the in-memory availability index ----
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.tenantName from Tenant t where t.tenantName is not null")
+    Stream<String> streamAllTenantNames();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.domain from Tenant t where t.domain is not null")
+    Stream<String> streamAllDomains();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.phoneNo from Tenant t where t.phoneNo is not null")
+    Stream<String> streamAllPhoneNos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.email from Tenant t where t.email is not null")
+    Stream<String> streamAllEmails();
+
+    // ---- batched uniqueness checks (bulk onboarding) ----
+
+    List<Tenant> findByTenantNameIn(Collection<String> tenantNames);
+
+    @Query("select t.domain from Tenant t where t.domain in :domains")
+    List<String> findExistingDomains(@Param("domains") Collection<String> domains);
+
+    @Query("select t.phoneNo from Tenant t where t.phoneNo in :phoneNos")
+    List<String> findExistingPhoneNos(@Param("phoneNos") Collection<String> phoneNos);
+
+    @Query("select t.email from Tenant t where t.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // ---- keyset pages, ordered by primary key ----
+
+    List<Tenant> findByParentTenantIdOrderByTenantIDAsc(String parentTenantId, Limit limit);
+
+    List<Tenant> findByParentTenantIdAndTenantIDGreaterThanOrderByTenantIDAsc(String parentTenantId, String after, Limit limit);
 }
@@ -2,17 +2,26 @@ package com.secufusion.iam.repository;
 
 import com.secufusion.iam.entity.Tenant;
 import com.secufusion.iam.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Serializable> {
     Optional<User> findByUserName(String userName);
     Optional<User> findByEmail(String email);
+    Optional<User> findByKeycloakUserId(String keycloakUserId);
 
     List<User> findByTenant(Tenant t);
 
@@ -31,4 +40,53 @@ public interface UserRepository extends JpaRepository<User, Serializable> {
     boolean existsByPhoneNo(String mobileNumber);
 
     Optional<User> findByPhoneNo(String adminPhoneNumber);
+
+    /**
+     * Availability of a username, email and phone number in one round trip; null parameters
+     * are reported as not taken.
+     */
+    @Query(value = """
+            SELECT
+                EXISTS (SELECT 1 FROM users u WHERE u.user_name = CAST(:userName AS varchar)) AS "userNameTaken",
+                EXISTS (SELECT 1 FROM users u WHERE u.email = CAST(:email AS varchar))        AS "emailTaken",
+                EXISTS (SELECT 1 FROM users u WHERE u.phone_no = CAST(:phoneNo AS varchar))   AS "phoneNoTaken"
+            """, nativeQuery = true)
+    UserConflicts findUserConflicts(@Param("userName") String userName,
+                                    @Param("email") String email,
+                                    @Param("phoneNo") String phoneNo);
+
+    interface UserConflicts {
+        Boolean getUserNameTaken();
+        Boolean getEmailTaken();
+        Boolean getPhoneNoTaken();
+    }
+
+    // ---- full scans for the in-memory availability index ----
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.userName from User u where u.userName is not null")
+    Stream<String> streamAllUserNames();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u where u.email is not null")
+    Stream<String> streamAllEmails();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.phoneNo from User u where u.phoneNo is not null")
+    Stream<String> streamAllPhoneNos();
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.phoneNo from User u where u.phoneNo in :phoneNos")
+    List<String> findExistingPhoneNos(@Param("phoneNos") Collection<String> phoneNos);
+
+    @Query("select u.userName from User u where u.userName in :userNames")
+    List<String> findExistingUserNames(@Param("userNames") Collection<String> userNames);
+
+    // ---- keyset pages, ordered by primary key ----
+
+    List<User> findAllByOrderByPkUserIdAsc(Limit limit);
+
+    List<User> findByPkUserIdGreaterThanOrderByPkUserIdAsc(String after, Limit limit);
 }
@@ -0,0 +1,276 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.entity.User;
+import com.secufusion.iam.event.TenantChangedEvent;
+import com.secufusion.iam.event.UserChangedEvent;
+import com.secufusion.iam.repository.TenantRepository;
+import com.secufusion.iam.repository.UserRepository;
+import com.secufusion.iam.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters in front of the availability checks.
+ * <p>
+ * One filter per checked column (tenant name, normalized domain, tenant phone/email, username,
+ * user email/phone). A "definitely absent" answer lets a typeahead probe skip Postgres; a
+ * possible hit falls through to the exact query. Filters are built with streaming queries once
+ * the application is ready, fed synchronously from {@link TenantChangedEvent} /
+ * {@link UserChangedEvent} (so a value is present before its transaction commits), and rebuilt
+ * every {@code iam.availability.bloom.rebuild-interval} to shed deleted values. Until the first
+ * build completes every probe falls through.
+ * <p>
+ * The filters only see writes made on this node; values inserted by another instance appear
+ * after the next rebuild. A "definitely absent" answer is therefore advisory: it is used for
+ * the availability-check endpoints, never as the sole proof that a value is free before it is
+ * written (create paths run the exact queries and the unique constraints decide).
+ */
+@Slf4j
+@Component
+public class AvailabilityIndex {
+
+    public enum Field {
+        TENANT_NAME, TENANT_DOMAIN, TENANT_PHONE, TENANT_EMAIL, USER_NAME, USER_EMAIL, USER_PHONE
+    }
+
+    private final TenantRepository tenantRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final long minExpectedInsertions;
+    private final double falsePositiveProbability;
+
+    private volatile Map<Field, BloomFilter> filters;
+    /** Writes seen while a rebuild is running, replayed into the new filters before they go live. */
+    private volatile Queue<Map.Entry<Field, String>> backlog;
+
+    private final Map<Field, Counter> skipped = new EnumMap<>(Field.class);
+    private final Map<Field, Counter> truePositives = new EnumMap<>(Field.class);
+    private final Map<Field, Counter> falsePositives = new EnumMap<>(Field.class);
+
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "availability-index");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Duration rebuildInterval;
+
+    public AvailabilityIndex(TenantRepository tenantRepository,
+                             UserRepository userRepository,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${iam.availability.bloom.expected-insertions:100000}") long minExpectedInsertions,
+                             @Value("${iam.availability.bloom.false-positive-probability:0.01}") double falsePositiveProbability,
+                             @Value("${iam.availability.bloom.rebuild-interval:PT15M}") Duration rebuildInterval) {
+        this.tenantRepository = tenantRepository;
+        this.userRepository = userRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.rebuildInterval = rebuildInterval;
+
+        for (Field field : Field.values()) {
+            String tag = field.name().toLowerCase();
+            skipped.put(field, Counter.builder("iam.availability.bloom.probes").tag("field", tag).tag("result", "absent")
+                    .description("Availability probes answered by the Bloom filter alone").register(meterRegistry));
+            truePositives.put(field, Counter.builder("iam.availability.bloom.probes").tag("field", tag).tag("result", "true-positive")
+                    .register(meterRegistry));
+            falsePositives.put(field, Counter.builder("iam.availability.bloom.probes").tag("field", tag).tag("result", "false-positive")
+                    .register(meterRegistry));
+            Gauge.builder("iam.availability.bloom.false-positive-rate", this, idx -> idx.observedFalsePositiveRate(field))
+                    .tag("field", tag)
+                    .description("Share of probes the filter could not rule out that the DB reported absent")
+                    .register(meterRegistry);
+            Gauge.builder("iam.availability.bloom.expected-false-positive-rate", this, idx -> idx.stat(field, BloomFilter::expectedFalsePositiveRate))
+                    .tag("field", tag)
+                    .register(meterRegistry);
+            Gauge.builder("iam.availability.bloom.memory", this, idx -> idx.stat(field, f -> (double) f.memoryBytes()))
+                    .tag("field", tag)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        long interval = rebuildInterval.toMillis();
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * {@code false} only if the value is definitely not stored in the column behind {@code field}.
+     */
+    public boolean mightContain(Field field, String value) {
+        Map<Field, BloomFilter> current = filters;
+        if (current == null || value == null) {
+            return true;
+        }
+        if (!current.get(field).mightContain(value)) {
+            skipped.get(field).increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Exact existence check behind the filter: {@code query} only runs if the filter cannot rule
+     * the value out.
+     */
+    public boolean exists(Field field, String value, Predicate<String> query) {
+        if (!mightContain(field, value)) {
+            return false;
+        }
+        boolean exists = query.test(value);
+        recordLookup(field, exists);
+        return exists;
+    }
+
+    /**
+     * {@code value} if it still needs the exact query, {@code null} if it is blank or definitely absent.
+     */
+    public String candidate(Field field, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return mightContain(field, value) ? value : null;
+    }
+
+    /**
+     * Interprets one column of a combined conflict query run with {@link #candidate} values,
+     * recording the outcome for values that were probed.
+     */
+    public boolean taken(Field field, String candidate, Boolean taken) {
+        if (candidate == null) {
+            return false;
+        }
+        boolean exists = Boolean.TRUE.equals(taken);
+        recordLookup(field, exists);
+        return exists;
+    }
+
+    /**
+     * Records what the exact query said after {@link #mightContain} returned {@code true}.
+     */
+    public void recordLookup(Field field, boolean exists) {
+        if (filters != null) {
+            (exists ? truePositives : falsePositives).get(field).increment();
+        }
+    }
+
+    @EventListener
+    public void onTenantChanged(TenantChangedEvent event) {
+        if (event.type() == TenantChangedEvent.ChangeType.DELETED || event.tenant() == null) {
+            return;
+        }
+        Tenant t = event.tenant();
+        add(Field.TENANT_NAME, t.getTenantName());
+        add(Field.TENANT_DOMAIN, t.getDomain());
+        add(Field.TENANT_PHONE, t.getPhoneNo());
+        add(Field.TENANT_EMAIL, t.getEmail());
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.ChangeType.DELETED || event.user() == null) {
+            return;
+        }
+        User u = event.user();
+        add(Field.USER_NAME, u.getUserName());
+        add(Field.USER_EMAIL, u.getEmail());
+        add(Field.USER_PHONE, u.getPhoneNo());
+    }
+
+    private void add(Field field, String value) {
+        if (value == null) {
+            return;
+        }
+        Queue<Map.Entry<Field, String>> pending = backlog;
+        if (pending != null) {
+            pending.add(Map.entry(field, value));
+        }
+        Map<Field, BloomFilter> current = filters;
+        if (current != null) {
+            current.get(field).put(value);
+        }
+    }
+
+    void rebuild() {
+        long start = System.nanoTime();
+        Queue<Map.Entry<Field, String>> pending = new ConcurrentLinkedQueue<>();
+        backlog = pending;
+        try {
+            Map<Field, BloomFilter> fresh = new EnumMap<>(Field.class);
+            readOnlyTx.executeWithoutResult(status -> {
+                long tenants = tenantRepository.count();
+                long users = userRepository.count();
+                fresh.put(Field.TENANT_NAME, load(tenants, tenantRepository::streamAllTenantNames));
+                fresh.put(Field.TENANT_DOMAIN, load(tenants, tenantRepository::streamAllDomains));
+                fresh.put(Field.TENANT_PHONE, load(tenants, tenantRepository::streamAllPhoneNos));
+                fresh.put(Field.TENANT_EMAIL, load(tenants, tenantRepository::streamAllEmails));
+                fresh.put(Field.USER_NAME, load(users, userRepository::streamAllUserNames));
+                fresh.put(Field.USER_EMAIL, load(users, userRepository::streamAllEmails));
+                fresh.put(Field.USER_PHONE, load(users, userRepository::streamAllPhoneNos));
+            });
+            filters = fresh;
+            backlog = null;
+            Map.Entry<Field, String> e;
+            while ((e = pending.poll()) != null) {
+                fresh.get(e.getKey()).put(e.getValue());
+            }
+            log.info("Availability index rebuilt in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception ex) {
+            backlog = null;
+            log.error("Availability index rebuild failed, keeping previous filters: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Streams a column into a filter sized for twice its table's row count (headroom for growth
+     * until the next rebuild).
+     */
+    private BloomFilter load(long rows, Supplier<Stream<String>> column) {
+        BloomFilter filter = new BloomFilter(Math.max(minExpectedInsertions, rows * 2), falsePositiveProbability);
+        try (Stream<String> stream = column.get()) {
+            stream.forEach(filter::put);
+        }
+        return filter;
+    }
+
+    private double observedFalsePositiveRate(Field field) {
+        double fp = falsePositives.get(field).count();
+        double negatives = skipped.get(field).count();
+        return fp + negatives == 0 ? 0 : fp / (fp + negatives);
+    }
+
+    private double stat(Field field, ToDoubleFunction<BloomFilter> f) {
+        Map<Field, BloomFilter> current = filters;
+        return current == null ? 0 : f.applyAsDouble(current.get(field));
+    }
+}
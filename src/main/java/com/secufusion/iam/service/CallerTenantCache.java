@@ -0,0 +1,110 @@
+package com.secufusion.iam.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.event.TenantChangedEvent;
+import com.secufusion.iam.repository.TenantRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-based cache of caller email → tenant snapshot, used to resolve "who is calling"
+ * without a database round trip on every tenant endpoint.
+ * <p>
+ * Concurrent misses for the same email are coalesced into one query (Caffeine computes a
+ * key at most once at a time). Entries are evicted explicitly when {@link TenantService}
+ * updates or deletes a tenant; changes made by other nodes are picked up within the TTL.
+ * Callers get a detached copy of the snapshot's scalar fields, never a managed entity or a
+ * lazy proxy.
+ */
+@Slf4j
+@Component
+public class CallerTenantCache {
+
+    private final TenantRepository tenantRepository;
+    private final Cache<String, Snapshot> tenantByEmail;
+
+    public CallerTenantCache(TenantRepository tenantRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${iam.caller-tenant-cache.max-size:10000}") long maxSize,
+                             @Value("${iam.caller-tenant-cache.ttl:PT5M}") Duration ttl) {
+        this.tenantRepository = tenantRepository;
+        this.tenantByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, tenantByEmail, "callerTenant");
+        Gauge.builder("iam.caller-tenant.cache.hit-ratio", tenantByEmail, c -> c.stats().hitRate())
+                .description("Hit ratio of the caller email to tenant cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the tenant whose email matches, or {@code null}.
+     */
+    public Tenant resolve(String email) {
+        if (email == null) {
+            return null;
+        }
+        Snapshot snapshot = tenantByEmail.get(email, this::load);
+        return snapshot != null ? snapshot.toTenant() : null;
+    }
+
+    public void evictTenant(String tenantId) {
+        if (tenantId != null) {
+            tenantByEmail.asMap().values().removeIf(s -> tenantId.equals(s.tenantId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantChanged(TenantChangedEvent event) {
+        if (event.type() == TenantChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        Tenant tenant = event.tenant();
+        if (tenant.getEmail() != null) {
+            tenantByEmail.invalidate(tenant.getEmail());
+        }
+        evictTenant(tenant.getTenantID());
+        log.debug("Evicted caller-tenant cache entries for tenantId={}", tenant.getTenantID());
+    }
+
+    private Snapshot load(String email) {
+        return tenantRepository.findByEmail(email)
+                .map(Snapshot::of)
+                .orElse(null);
+    }
+
+    /** The caller tenant's own columns; relations are left out so nothing can lazy-load. */
+    private record Snapshot(String tenantId, String tenantName, String domain, String email,
+                            String tenantType, String status, String realmName, String parentTenantId) {
+
+        static Snapshot of(Tenant t) {
+            return new Snapshot(t.getTenantID(), t.getTenantName(), t.getDomain(), t.getEmail(),
+                    t.getTenantType(), t.getStatus(), t.getRealmName(), t.getParentTenantId());
+        }
+
+        Tenant toTenant() {
+            Tenant t = new Tenant();
+            t.setTenantID(tenantId);
+            t.setTenantName(tenantName);
+            t.setDomain(domain);
+            t.setEmail(email);
+            t.setTenantType(tenantType);
+            t.setStatus(status);
+            t.setRealmName(realmName);
+            t.setParentTenantId(parentTenantId);
+            return t;
+        }
+    }
+}
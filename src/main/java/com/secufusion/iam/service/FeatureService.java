@@ -2,12 +2,14 @@ package com.secufusion.iam.service;
 
 import com.secufusion.iam.dto.CreateFeatureRequest;
 import com.secufusion.iam.dto.FeatureResponse;
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.entity.Feature;
 import com.secufusion.iam.entity.FeatureType;
 import com.secufusion.iam.entity.TenantType;
 import com.secufusion.iam.repository.FeatureRepository;
 import com.secufusion.iam.repository.FeatureTypeRepository;
 import com.secufusion.iam.repository.TenantTypeRepository;
+import com.secufusion.iam.util.KeysetPaging;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -27,6 +29,9 @@ public class FeatureService {
     @Autowired
     private TenantTypeRepository tenantTypeRepository;
 
+    @Autowired
+    private KeysetPaging keysetPaging;
+
     // CREATE
     public FeatureResponse createFeature(CreateFeatureRequest request) {
 
@@ -70,6 +75,17 @@ public class FeatureService {
     }
 
 
+    // GET PAGE
+    public PageResponse<FeatureResponse> getFeaturesPage(String cursor, Integer size) {
+        int pageSize = keysetPaging.size(size);
+        Long after = keysetPaging.afterLong(cursor);
+        List<Feature> rows = after == null
+                ? featureRepository.findAllByOrderByPkFeatureIDAsc(keysetPaging.fetchLimit(pageSize))
+                : featureRepository.findByPkFeatureIDGreaterThanOrderByPkFeatureIDAsc(after, keysetPaging.fetchLimit(pageSize));
+        return keysetPaging.page(rows, pageSize, Feature::getPkFeatureID, this::mapToResponse);
+    }
+
+
     // GET BY ID
     public FeatureResponse getFeature(Long id) {
         log.info("Fetching feature with ID: {}", id);
@@ -1,6 +1,7 @@
 package com.secufusion.iam.service;
 
 import com.secufusion.iam.dto.GroupsDropdown;
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.dto.RoleDropdownResponse;
 import com.secufusion.iam.entity.Groups;
 import com.secufusion.iam.entity.Roles;
@@ -10,6 +11,7 @@ import com.secufusion.iam.exception.ResourceNotFoundException;
 import com.secufusion.iam.repository.GroupsRepository;
 import com.secufusion.iam.repository.TenantRepository;
 import com.secufusion.iam.repository.UserRepository;
+import com.secufusion.iam.util.KeysetPaging;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +33,9 @@ public class GroupService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private KeysetPaging keysetPaging;
+
     /** Create or get a group */
     @Transactional
     public Groups createOrGetDefaultGroup(String tenantId, String groupName, boolean isAdmin, String defaultUser) {
@@ -123,6 +128,15 @@ public class GroupService {
         return groupsRepository.findAll();
     }
 
+    public PageResponse<Groups> getGroupsPage(String cursor, Integer size) {
+        int pageSize = keysetPaging.size(size);
+        String after = keysetPaging.after(cursor);
+        List<Groups> rows = after == null
+                ? groupsRepository.findAllByOrderByPkGroupIdAsc(keysetPaging.fetchLimit(pageSize))
+                : groupsRepository.findByPkGroupIdGreaterThanOrderByPkGroupIdAsc(after, keysetPaging.fetchLimit(pageSize));
+        return keysetPaging.page(rows, pageSize, Groups::getPkGroupId, g -> g);
+    }
+
     public List<GroupsDropdown> getGroupsForDropdown() {
         List<Groups> groupsList = groupsRepository.findAll();
         return groupsList.stream()
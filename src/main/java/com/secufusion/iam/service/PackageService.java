@@ -1,5 +1,6 @@
 package com.secufusion.iam.service;
 
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.entity.Feature;
 import com.secufusion.iam.entity.Package;
 import com.secufusion.iam.entity.PackageType;
@@ -7,6 +8,7 @@ import com.secufusion.iam.exception.ResourceNotFoundException;
 import com.secufusion.iam.repository.FeatureRepository;
 import com.secufusion.iam.repository.PackageRepository;
 import com.secufusion.iam.repository.PackageTypeRepository;
+import com.secufusion.iam.util.KeysetPaging;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -28,6 +30,9 @@ public class PackageService {
     @Autowired
     private FeatureRepository featureRepository;
 
+    @Autowired
+    private KeysetPaging keysetPaging;
+
     // CREATE
     public Package createPackage(Package pkg) {
 
@@ -108,6 +113,16 @@ public class PackageService {
         return packageRepository.findAll();
     }
 
+    // READ PAGE
+    public PageResponse<Package> getPackagesPage(String cursor, Integer size) {
+        int pageSize = keysetPaging.size(size);
+        Long after = keysetPaging.afterLong(cursor);
+        List<Package> rows = after == null
+                ? packageRepository.findAllByOrderByPkPackageIdAsc(keysetPaging.fetchLimit(pageSize))
+                : packageRepository.findByPkPackageIdGreaterThanOrderByPkPackageIdAsc(after, keysetPaging.fetchLimit(pageSize));
+        return keysetPaging.page(rows, pageSize, Package::getPkPackageId, p -> p);
+    }
+
     // DELETE
     public void deletePackage(Long id) {
         if (!packageRepository.existsById(id)) {
@@ -0,0 +1,170 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.entity.ProvisioningStepJournal;
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.repository.ProvisioningStepJournalRepository;
+import com.secufusion.iam.util.JwtUtl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every provisioning step attempt of {@link TenantService#resumeTenantSetup} in
+ * {@code provisioning_step_journal} and in the {@code iam.tenant.provisioning.step} timer
+ * (tagged by step and outcome, with a percentile histogram for Keycloak capacity planning).
+ * <p>
+ * Each provisioning run gets its own listener from {@link #newRun()}, which holds the ids of the
+ * rows it opened, so concurrent runs for the same tenant never finish each other's rows. Attempt
+ * numbers are unique per tenant and step ({@code uq_psj_tenant_step_attempt}); a run that loses
+ * the race for a number takes the next one. Journal writes run in their own transactions, so an
+ * attempt that rolls back the provisioning transaction is still recorded as FAILED. Journal
+ * problems are logged and never fail provisioning.
+ */
+@Slf4j
+@Component
+public class ProvisioningJournal {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_ATTEMPT_RETRIES = 3;
+
+    private final ProvisioningStepJournalRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final MeterRegistry meterRegistry;
+    private final JwtUtl jwtUtl;
+    private final TenantTree tenantTree;
+
+    public ProvisioningJournal(ProvisioningStepJournalRepository repository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               JwtUtl jwtUtl,
+                               TenantTree tenantTree) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.jwtUtl = jwtUtl;
+        this.tenantTree = tenantTree;
+    }
+
+    /**
+     * Listener for one provisioning run; callbacks arrive on the provisioning thread.
+     */
+    public ProvisioningListener newRun() {
+        return new ProvisioningListener() {
+            /** journal row opened by this run, per step */
+            private final Map<String, Long> open = new HashMap<>();
+
+            @Override
+            public void stepStarted(Tenant tenant, String step) {
+                Long id = start(tenant, step);
+                if (id != null) {
+                    open.put(step, id);
+                }
+            }
+
+            @Override
+            public void stepCompleted(Tenant tenant, String step, long elapsedNanos) {
+                finish(open.remove(step), tenant, step, elapsedNanos, "SUCCEEDED", null);
+            }
+
+            @Override
+            public void stepFailed(Tenant tenant, String step, long elapsedNanos, Exception error) {
+                finish(open.remove(step), tenant, step, elapsedNanos, "FAILED", error);
+            }
+        };
+    }
+
+    /**
+     * Every journaled attempt for a tenant the caller may see (itself or a descendant).
+     */
+    public List<ProvisioningStepJournal> entriesFor(HttpServletRequest request, String tenantId) {
+        Tenant requester = jwtUtl.getTenantFromEmail(request);
+        if (requester == null || !tenantTree.isAncestorOrSelf(requester.getTenantID(), tenantId)) {
+            throw new KeycloakOperationException("ACCESS_DENIED", 1022, "Access denied to tenant.");
+        }
+        return repository.findByTenantIdOrderByStartedAtAsc(tenantId);
+    }
+
+    /**
+     * p50/p95/p99/max per step over attempts started within {@code window}.
+     */
+    public List<ProvisioningStepJournalRepository.StepLatency> latencies(Duration window) {
+        if (window.isNegative() || window.isZero()) {
+            throw new KeycloakOperationException("INVALID_WINDOW", 1038, "window must be a positive ISO-8601 duration.");
+        }
+        return repository.findStepLatencies(Instant.now().minus(window));
+    }
+
+    private Long start(Tenant tenant, String step) {
+        try {
+            for (int tries = 1; ; tries++) {
+                try {
+                    return requiresNew.execute(status -> {
+                        ProvisioningStepJournal entry = new ProvisioningStepJournal();
+                        entry.setTenantId(tenant.getTenantID());
+                        entry.setTenantName(tenant.getTenantName());
+                        entry.setStep(step);
+                        entry.setAttempt((int) repository.countByTenantIdAndStep(tenant.getTenantID(), step) + 1);
+                        entry.setOutcome("RUNNING");
+                        entry.setStartedAt(Instant.now());
+                        return repository.saveAndFlush(entry).getPkJournalId();
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    // another run took this attempt number
+                    if (tries >= MAX_ATTEMPT_RETRIES) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to journal start of step {} for tenantId={}: {}", step, tenant.getTenantID(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void finish(Long id, Tenant tenant, String step, long elapsedNanos, String outcome, Exception error) {
+        Timer.builder("iam.tenant.provisioning.step")
+                .description("Duration of tenant provisioning steps")
+                .tag("step", step)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(5))
+                .maximumExpectedValue(Duration.ofMinutes(2))
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (id == null) {
+            return;
+        }
+        try {
+            requiresNew.executeWithoutResult(status -> repository.findById(id).ifPresent(entry -> {
+                entry.setOutcome(outcome);
+                entry.setFinishedAt(Instant.now());
+                entry.setDurationMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+                if (error != null) {
+                    entry.setErrorCode(error instanceof KeycloakOperationException koe
+                            ? koe.getErrorCode() : error.getClass().getSimpleName());
+                    String message = String.valueOf(error.getMessage());
+                    entry.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                }
+                repository.save(entry);
+            }));
+        } catch (Exception e) {
+            log.warn("Failed to journal end of step {} for tenantId={}: {}", step, tenant.getTenantID(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.entity.Tenant;
+
+/**
+ * Observer of the tenant provisioning steps run by {@link TenantService#resumeTenantSetup}.
+ * Callbacks run on the provisioning thread, inside its transaction.
+ */
+public interface ProvisioningListener {
+
+    String STEP_REALM = "REALM";
+    String STEP_REALM_IMPORT = "REALM_IMPORT";
+    String STEP_CLIENT = "CLIENT";
+    String STEP_USER = "USER";
+    String STEP_FINALIZE = "FINALIZE";
+    String STEP_AUTH_CONFIG = "AUTH_CONFIG";
+
+    ProvisioningListener NOOP = new ProvisioningListener() {
+    };
+
+    default void stepStarted(Tenant tenant, String step) {
+    }
+
+    default void stepCompleted(Tenant tenant, String step, long elapsedNanos) {
+    }
+
+    default void stepFailed(Tenant tenant, String step, long elapsedNanos, Exception error) {
+    }
+
+    /**
+     * This listener, then {@code next}, for every callback.
+     */
+    default ProvisioningListener andThen(ProvisioningListener next) {
+        ProvisioningListener first = this;
+        return new ProvisioningListener() {
+            @Override
+            public void stepStarted(Tenant tenant, String step) {
+                first.stepStarted(tenant, step);
+                next.stepStarted(tenant, step);
+            }
+
+            @Override
+            public void stepCompleted(Tenant tenant, String step, long elapsedNanos) {
+                first.stepCompleted(tenant, step, elapsedNanos);
+                next.stepCompleted(tenant, step, elapsedNanos);
+            }
+
+            @Override
+            public void stepFailed(Tenant tenant, String step, long elapsedNanos, Exception error) {
+                first.stepFailed(tenant, step, elapsedNanos, error);
+                next.stepFailed(tenant, step, elapsedNanos, error);
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.secufusion.iam.service;
 
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.dto.RoleDropdownResponse;
 import com.secufusion.iam.entity.Roles;
 import com.secufusion.iam.entity.Tenant;
@@ -7,6 +8,7 @@ import com.secufusion.iam.exception.ResourceNotFoundException;
 import com.secufusion.iam.repository.RolesRepository;
 import com.secufusion.iam.repository.TenantRepository;
 import com.secufusion.iam.repository.UserRepository;
+import com.secufusion.iam.util.KeysetPaging;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +30,9 @@ public class RoleService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private KeysetPaging keysetPaging;
+
     /** Create or return existing */
     @Transactional
     public Roles createOrGetDefaultRole(String tenantId, String roleName, String description, String  adminUserId) {
@@ -66,6 +71,15 @@ public class RoleService {
         return rolesRepository.findAll();
     }
 
+    public PageResponse<Roles> getRolesPage(String cursor, Integer size) {
+        int pageSize = keysetPaging.size(size);
+        String after = keysetPaging.after(cursor);
+        List<Roles> rows = after == null
+                ? rolesRepository.findAllByOrderByPkRoleIdAsc(keysetPaging.fetchLimit(pageSize))
+                : rolesRepository.findByPkRoleIdGreaterThanOrderByPkRoleIdAsc(after, keysetPaging.fetchLimit(pageSize));
+        return keysetPaging.page(rows, pageSize, Roles::getPkRoleId, r -> r);
+    }
+
     public Roles getRoleById(String id) {
         return rolesRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found with id: " + id));
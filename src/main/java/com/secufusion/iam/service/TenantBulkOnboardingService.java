@@ -0,0 +1,448 @@
+package com.secufusion.iam.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secufusion.iam.dto.BulkTenantResult;
+import com.secufusion.iam.dto.CreateTenantRequest;
+import com.secufusion.iam.dto.TenantResponse;
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.repository.TenantRepository;
+import com.secufusion.iam.repository.UserRepository;
+import com.secufusion.iam.util.JwtUtl;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bulk tenant onboarding ({@code POST /tenants/bulk}).
+ * <p>
+ * Rows arrive as NDJSON or CSV (header row with {@link CreateTenantRequest} property names,
+ * nested address fields as {@code permanentAddress.country}). All rows are checked together:
+ * required fields, duplicates inside the batch and conflicts with existing tenants/users,
+ * using one IN query per field. Valid rows are then provisioned on the shared provisioning
+ * pool with at most {@code tenant.bulk.parallelism} in flight, and one result line per row is
+ * streamed back as soon as it is known. Rows for tenants left half-provisioned by an earlier
+ * run go straight to {@code resumeTenantSetup}. Each row still runs the full per-tenant
+ * validation before it is created, which catches conflicts with concurrent writers.
+ */
+@Slf4j
+@Service
+public class TenantBulkOnboardingService {
+
+    private final TenantService tenantService;
+    private final TenantProvisioningExecutor provisioningExecutor;
+    private final TenantRepository tenantRepository;
+    private final UserRepository userRepository;
+    private final JwtUtl jwtUtl;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tenant.bulk.parallelism:4}")
+    private int parallelism;
+
+    @Value("${tenant.bulk.max-rows:1000}")
+    private int maxRows;
+
+    @Value("${tenant.bulk.submit-retries:50}")
+    private int submitRetries;
+
+    private static final long SUBMIT_RETRY_DELAY_MS = 100;
+
+    public TenantBulkOnboardingService(TenantService tenantService,
+                                       TenantProvisioningExecutor provisioningExecutor,
+                                       TenantRepository tenantRepository,
+                                       UserRepository userRepository,
+                                       JwtUtl jwtUtl,
+                                       ObjectMapper objectMapper) {
+        this.tenantService = tenantService;
+        this.provisioningExecutor = provisioningExecutor;
+        this.tenantRepository = tenantRepository;
+        this.userRepository = userRepository;
+        this.jwtUtl = jwtUtl;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Parses and validates the batch on the calling thread, then returns the body that
+     * provisions the valid rows and streams the results.
+     */
+    public StreamingResponseBody onboard(HttpServletRequest request, InputStream body, boolean csv) throws IOException {
+        Tenant parent = jwtUtl.getTenantFromEmail(request);
+        if (parent == null) {
+            log.warn("Bulk onboarding denied: no caller tenant");
+            throw new KeycloakOperationException("ACCESS_DENIED", 1022, "Access denied to tenant.");
+        }
+        String parentTenantId = parent.getTenantID();
+
+        List<Row> rows = csv ? parseCsv(body) : parseNdjson(body);
+        log.info("Bulk onboarding received. rows={}, parentTenantId={}", rows.size(), parentTenantId);
+
+        Map<Integer, BulkTenantResult> rejected = validate(rows);
+        List<Row> accepted = rows.stream().filter(r -> !rejected.containsKey(r.line())).toList();
+        log.info("Bulk onboarding validated. accepted={}, rejected={}", accepted.size(), rejected.size());
+
+        return out -> {
+            for (BulkTenantResult r : rejected.values()) {
+                write(out, r);
+            }
+            provisionAll(accepted, parentTenantId, out);
+            log.info("Bulk onboarding finished. rows={}", rows.size());
+        };
+    }
+
+    // ============================================================================ PROVISIONING
+
+    private void provisionAll(List<Row> rows, String parentTenantId, OutputStream out) throws IOException {
+        Semaphore slots = new Semaphore(Math.max(1, parallelism));
+        BlockingQueue<BulkTenantResult> done = new LinkedBlockingQueue<>();
+        int written = 0;
+
+        try {
+            for (Row row : rows) {
+                while (!slots.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    written += drain(done, out);
+                }
+                written += drain(done, out);
+
+                CompletableFuture<TenantResponse> future = submit(row, parentTenantId);
+                if (future == null) {
+                    // never queued: report it and give the slot back
+                    done.add(new BulkTenantResult(row.line(), row.request().getTenantName(), "FAILED",
+                            null, null, "PROVISIONING_QUEUE_FULL", "Provisioning pool is saturated; retry this row."));
+                    slots.release();
+                    continue;
+                }
+                future.handle((resp, err) -> err == null ? succeeded(row, resp) : failed(row, err))
+                        .thenAccept(result -> {
+                            done.add(result);
+                            slots.release();
+                        });
+            }
+            while (written < rows.size()) {
+                BulkTenantResult r = done.take();
+                write(out, r);
+                written++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Bulk onboarding stream interrupted after {} of {} rows", written, rows.size());
+        }
+    }
+
+    /**
+     * Hands the row to the provisioning pool, which other requests share; a full pool is retried
+     * up to {@code tenant.bulk.submit-retries} times. Returns null if the row could not be queued.
+     */
+    private CompletableFuture<TenantResponse> submit(Row row, String parentTenantId) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return provisioningExecutor.provision(parentTenantId, row.request());
+            } catch (TaskRejectedException e) {
+                if (attempt >= submitRetries) {
+                    log.warn("Bulk row {} not queued, provisioning pool full. tenantName={}",
+                            row.line(), row.request().getTenantName());
+                    return null;
+                }
+                Thread.sleep(SUBMIT_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private int drain(BlockingQueue<BulkTenantResult> done, OutputStream out) throws IOException {
+        List<BulkTenantResult> ready = new ArrayList<>();
+        done.drainTo(ready);
+        for (BulkTenantResult r : ready) {
+            write(out, r);
+        }
+        return ready.size();
+    }
+
+    private BulkTenantResult succeeded(Row row, TenantResponse resp) {
+        return new BulkTenantResult(row.line(), row.request().getTenantName(), "SUCCEEDED",
+                resp.getTenantID(), resp.getStatus(), null, null);
+    }
+
+    private BulkTenantResult failed(Row row, Throwable err) {
+        Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+        String code = cause instanceof KeycloakOperationException kex ? kex.getErrorCode() : "PROVISIONING_FAILED";
+        log.warn("Bulk row {} failed. tenantName={}, code={}, error={}",
+                row.line(), row.request().getTenantName(), code, cause.getMessage());
+        return new BulkTenantResult(row.line(), row.request().getTenantName(), "FAILED",
+                null, null, code, cause.getMessage());
+    }
+
+    private void write(OutputStream out, BulkTenantResult result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+        out.flush();
+    }
+
+    // ============================================================================ VALIDATION
+
+    /**
+     * Batch version of the uniqueness rules in {@code TenantService.validateInputForNew}:
+     * same checks, same order and error codes, plus duplicates within the batch.
+     */
+    private Map<Integer, BulkTenantResult> validate(List<Row> rows) {
+        Map<Integer, BulkTenantResult> rejected = new TreeMap<>();
+        Map<Integer, String> domains = new HashMap<>();
+
+        for (Row row : rows) {
+            if (row.error() != null) {
+                rejected.put(row.line(), BulkTenantResult.rejected(row.line(), null, "INVALID_ROW", row.error()));
+                continue;
+            }
+            CreateTenantRequest req = row.request();
+            if (isBlank(req.getTenantName())) {
+                rejected.put(row.line(), BulkTenantResult.rejected(row.line(), null,
+                        "ORGANIZATION_NAME_REQUIRED", "Organization name is required."));
+                continue;
+            }
+            if (!isBlank(req.getDomain())) {
+                try {
+                    domains.put(row.line(), tenantService.normalizeDomainForDB(req.getDomain()));
+                } catch (KeycloakOperationException e) {
+                    rejected.put(row.line(), BulkTenantResult.rejected(row.line(), req.getTenantName(),
+                            e.getErrorCode(), e.getMessage()));
+                }
+            }
+        }
+
+        List<Row> candidates = rows.stream().filter(r -> !rejected.containsKey(r.line())).toList();
+        if (candidates.isEmpty()) {
+            return rejected;
+        }
+
+        Map<String, String> existingTenantStatus = new HashMap<>();
+        tenantRepository.findByTenantNameIn(collect(candidates, CreateTenantRequest::getTenantName))
+                .forEach(t -> existingTenantStatus.put(t.getTenantName(), t.getStatus()));
+        Set<String> takenDomains = new HashSet<>(tenantRepository.findExistingDomains(nonBlank(domains.values())));
+        Set<String> takenOrgPhones = new HashSet<>(tenantRepository.findExistingPhoneNos(collect(candidates, CreateTenantRequest::getPhoneNo)));
+        Set<String> takenOrgEmails = new HashSet<>(tenantRepository.findExistingEmails(collect(candidates, CreateTenantRequest::getEmail)));
+        Set<String> takenAdminEmails = new HashSet<>(userRepository.findExistingEmails(collect(candidates, CreateTenantRequest::getAdminEmail)));
+        Set<String> takenAdminPhones = new HashSet<>(userRepository.findExistingPhoneNos(collect(candidates, CreateTenantRequest::getAdminPhoneNumber)));
+
+        Set<String> batchNames = new HashSet<>();
+        for (Row row : candidates) {
+            CreateTenantRequest req = row.request();
+            String status = existingTenantStatus.get(req.getTenantName());
+            String[] conflict;
+            if (!batchNames.add(req.getTenantName())) {
+                conflict = new String[]{"ORGANIZATION_NAME_ALREADY_EXISTS", "Organization name is duplicated in this batch."};
+            } else if (status != null) {
+                // existing tenant: ACTIVE is a conflict, anything else is resumed as-is
+                conflict = "ACTIVE".equalsIgnoreCase(status)
+                        ? new String[]{"TENANT_ALREADY_ACTIVE", "Tenant already active."}
+                        : null;
+            } else {
+                conflict = firstConflict(req, domains.get(row.line()),
+                        takenDomains, takenOrgPhones, takenOrgEmails, takenAdminEmails, takenAdminPhones);
+            }
+            if (conflict != null) {
+                rejected.put(row.line(), BulkTenantResult.rejected(row.line(), req.getTenantName(), conflict[0], conflict[1]));
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * First failing rule for a new tenant. Accepted values are added to the "taken" sets so
+     * later rows in the same batch conflict with them.
+     */
+    private String[] firstConflict(CreateTenantRequest req, String dbDomain,
+                                   Set<String> domains, Set<String> orgPhones, Set<String> orgEmails,
+                                   Set<String> adminEmails, Set<String> adminPhones) {
+        if (dbDomain == null) {
+            return new String[]{"INVALID_DOMAIN", "A valid domain must be provided."};
+        }
+        if (domains.contains(dbDomain)) {
+            return new String[]{"DOMAIN_ALREADY_EXISTS", "This domain is already registered."};
+        }
+        if (isBlank(req.getPhoneNo())) {
+            return new String[]{"ORGANIZATION_PHONE_NUMBER_REQUIRED", "Organization phone number is required."};
+        }
+        if (orgPhones.contains(req.getPhoneNo())) {
+            return new String[]{"ORGANIZATION_PHONE_NUMBER_ALREADY_EXISTS", "Organization Phone number already exists."};
+        }
+        if (isBlank(req.getEmail())) {
+            return new String[]{"ORGANIZATION_EMAIL_REQUIRED", "Organization email is required."};
+        }
+        if (orgEmails.contains(req.getEmail())) {
+            return new String[]{"ORGANIZATION_EMAIL_ALREADY_EXISTS", "Organization email already exists."};
+        }
+        if (isBlank(req.getAdminEmail())) {
+            return new String[]{"ADMIN_EMAIL_REQUIRED", "Admin email is required."};
+        }
+        if (adminEmails.contains(req.getAdminEmail())) {
+            return new String[]{"ADMIN_EMAIL_ALREADY_EXISTS", "Admin Email already exists."};
+        }
+        if (isBlank(req.getAdminPhoneNumber())) {
+            return new String[]{"ADMIN_PHONE_NUMBER_REQUIRED", "Admin phone number is required."};
+        }
+        if (adminPhones.contains(req.getAdminPhoneNumber())) {
+            return new String[]{"ADMIN_PHONE_NUMBER_ALREADY_EXISTS", "Admin Phone number already exists."};
+        }
+
+        domains.add(dbDomain);
+        orgPhones.add(req.getPhoneNo());
+        orgEmails.add(req.getEmail());
+        adminEmails.add(req.getAdminEmail());
+        adminPhones.add(req.getAdminPhoneNumber());
+        return null;
+    }
+
+    private static Set<String> collect(List<Row> rows, Function<CreateTenantRequest, String> field) {
+        return nonBlank(rows.stream().map(r -> field.apply(r.request())).toList());
+    }
+
+    private static Set<String> nonBlank(Collection<String> values) {
+        Set<String> out = new HashSet<>();
+        for (String v : values) {
+            if (!isBlank(v)) {
+                out.add(v);
+            }
+        }
+        // an empty IN () is not valid SQL on every database
+        if (out.isEmpty()) {
+            out.add("");
+        }
+        return out;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    // ============================================================================ PARSING
+
+    private List<Row> parseNdjson(InputStream body) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                checkSize(rows);
+                try {
+                    rows.add(new Row(lineNo, objectMapper.readValue(line, CreateTenantRequest.class), null));
+                } catch (JsonProcessingException e) {
+                    rows.add(new Row(lineNo, null, "Unparseable JSON: " + e.getOriginalMessage()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private List<Row> parseCsv(InputStream body) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return rows;
+            }
+            List<String> header = splitCsvLine(headerLine.replace("\uFEFF", ""));
+            String line;
+            int lineNo = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                checkSize(rows);
+                try {
+                    List<String> cells = splitCsvLine(line);
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    for (int i = 0; i < header.size() && i < cells.size(); i++) {
+                        if (!cells.get(i).isEmpty()) {
+                            putPath(values, header.get(i).trim(), cells.get(i));
+                        }
+                    }
+                    rows.add(new Row(lineNo, objectMapper.convertValue(values, CreateTenantRequest.class), null));
+                } catch (IllegalArgumentException e) {
+                    rows.add(new Row(lineNo, null, "Invalid CSV row: " + e.getMessage()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void putPath(Map<String, Object> target, String path, String value) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            target.put(path, value);
+            return;
+        }
+        Map<String, Object> child = (Map<String, Object>) target.computeIfAbsent(
+                path.substring(0, dot), k -> new LinkedHashMap<String, Object>());
+        putPath(child, path.substring(dot + 1), value);
+    }
+
+    /**
+     * RFC 4180 field splitting for a single physical line (quoted fields may contain commas
+     * and doubled quotes, not line breaks).
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private void checkSize(List<Row> rows) {
+        if (rows.size() >= maxRows) {
+            throw new KeycloakOperationException("BULK_TOO_LARGE", 1031,
+                    "A bulk request may contain at most " + maxRows + " tenants.");
+        }
+    }
+
+    private record Row(int line, CreateTenantRequest request, String error) {
+    }
+}
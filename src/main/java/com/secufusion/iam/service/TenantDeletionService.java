@@ -0,0 +1,416 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.dto.TenantDeletionJobStatus;
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.event.AuthProviderConfigChangedEvent;
+import com.secufusion.iam.event.TenantChangedEvent;
+import com.secufusion.iam.event.TenantChangedEvent.ChangeType;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.exception.ResourceNotFoundException;
+import com.secufusion.iam.repository.TenantRepository;
+import com.secufusion.iam.util.JwtUtl;
+import com.secufusion.iam.util.KeycloakAdminUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tenant deletion, either as a background job ({@code DELETE /tenants/{id}?async=true}) or
+ * inline for a single leaf tenant ({@code DELETE /tenants/{id}}).
+ * <p>
+ * All tenants in the plan (the target, plus its whole subtree with {@code cascade}) are first
+ * marked {@code DELETING} in one batch, then removed leaves-first. For each tenant the Keycloak
+ * realm is deleted outside any DB transaction, then one short transaction removes its rows with
+ * set-based deletes in dependency order (group/role mappings, users, groups, roles, auth config,
+ * the tenant and its addresses). A tenant stays {@code DELETING} until its rows are gone, so a
+ * failed or interrupted job is resumed by submitting the delete again, and any leftovers are
+ * picked up automatically at startup.
+ */
+@Slf4j
+@Service
+public class TenantDeletionService {
+
+    public static final String STATUS_DELETING = "DELETING";
+
+    /** One set-based delete; every {@code ?} is bound to the tenant id. */
+    private record DeleteStep(String table, String sql) {
+        Object[] args(String tenantId) {
+            Object[] args = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+            Arrays.fill(args, tenantId);
+            return args;
+        }
+    }
+
+    /** Dependent rows of one tenant, in the order they must go. */
+    private static final List<DeleteStep> DELETE_STEPS = List.of(
+            new DeleteStep("user_group_map", """
+                    DELETE FROM user_group_map
+                     WHERE fk_user_id IN (SELECT u.pk_user_id FROM users u WHERE u.fk_tenant_id = ?)
+                        OR fk_group_id IN (SELECT g.pk_group_id FROM groups g WHERE g.fk_tenant_id = ?)
+                    """),
+            new DeleteStep("group_role_map", """
+                    DELETE FROM group_role_map
+                     WHERE fk_group_id IN (SELECT g.pk_group_id FROM groups g WHERE g.fk_tenant_id = ?)
+                        OR fk_role_id IN (SELECT r.pk_role_id FROM roles r WHERE r.fk_tenant_id = ?)
+                    """),
+            new DeleteStep("users", "DELETE FROM users WHERE fk_tenant_id = ?"),
+            new DeleteStep("groups", "DELETE FROM groups WHERE fk_tenant_id = ?"),
+            new DeleteStep("roles", "DELETE FROM roles WHERE fk_tenant_id = ?"));
+
+    /**
+     * Auth config goes last and returns what it removed: bypassing JPA skips
+     * {@code AuthProviderConfigListener}, so the deleted issuers are published here instead.
+     */
+    private static final String DELETE_AUTH_CONFIG = """
+            DELETE FROM auth_provider_config WHERE fk_tenant_id = ?
+            RETURNING auth_id, issuer_uri, jwk_uri
+            """;
+
+    private final TenantRepository tenantRepository;
+    private final TenantTree tenantTree;
+    private final KeycloakAdminUtil kcUtil;
+    private final JwtUtl jwtUtl;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration jobRetention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    /** tenant id → job currently responsible for it */
+    private final Map<String, Job> activeByTenant = new ConcurrentHashMap<>();
+
+    public TenantDeletionService(TenantRepository tenantRepository,
+                                 TenantTree tenantTree,
+                                 KeycloakAdminUtil kcUtil,
+                                 JwtUtl jwtUtl,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${tenant.deletion.async.pool-size:2}") int poolSize,
+                                 @Value("${tenant.deletion.async.queue-capacity:50}") int queueCapacity,
+                                 @Value("${tenant.deletion.async.job-retention:PT1H}") Duration jobRetention) {
+        this.tenantRepository = tenantRepository;
+        this.tenantTree = tenantTree;
+        this.kcUtil = kcUtil;
+        this.jwtUtl = jwtUtl;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.jobRetention = jobRetention;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tenant-deletion-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+    }
+
+    /**
+     * Plans and queues the deletion of {@code tenantId} (and, with {@code cascade}, every tenant
+     * below it). The caller must be an ancestor of the tenant. Re-submitting a tenant that is
+     * already being deleted returns the running job.
+     */
+    public TenantDeletionJobStatus submit(HttpServletRequest request, String tenantId, boolean cascade) {
+        purgeFinishedJobs();
+        Job running = activeByTenant.get(authorize(request, tenantId));
+        if (running != null) {
+            return running.snapshot();
+        }
+        return enqueue(plan(tenantId, cascade));
+    }
+
+    /**
+     * Deletes a single leaf tenant on the calling thread, with the same checks and steps as a
+     * queued job, and returns once it is gone ({@code DELETE /tenants/{id}}). A tenant that is
+     * already being deleted by a job is reported as {@code DELETION_IN_PROGRESS}.
+     */
+    public TenantDeletionJobStatus deleteNow(HttpServletRequest request, String tenantId) {
+        purgeFinishedJobs();
+        authorize(request, tenantId);
+        Job job = plan(tenantId, false);
+        if (claim(job) != null) {
+            throw new KeycloakOperationException("DELETION_IN_PROGRESS", 1039,
+                    "Tenant " + tenantId + " is already being deleted.");
+        }
+        jobs.put(job.id, job);
+        run(job);
+        TenantDeletionJobStatus status = job.snapshot();
+        if ("FAILED".equals(status.getState())) {
+            throw new KeycloakOperationException(status.getErrorCode(), 1037, status.getErrorMessage());
+        }
+        return status;
+    }
+
+    /** The caller must be a strict ancestor of the tenant; returns the tenant id. */
+    private String authorize(HttpServletRequest request, String tenantId) {
+        tenantRepository.findByTenantID(tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tenant not found: " + tenantId));
+        Tenant requester = jwtUtl.getTenantFromEmail(request);
+        if (requester == null || requester.getTenantID().equals(tenantId)
+                || !tenantTree.isAncestorOrSelf(requester.getTenantID(), tenantId)) {
+            log.warn("Deletion denied: requester tenantId={} is not an ancestor of tenantId={}",
+                    requester != null ? requester.getTenantID() : "null", tenantId);
+            throw new KeycloakOperationException("ACCESS_DENIED", 1022, "Access denied to tenant.");
+        }
+        return tenantId;
+    }
+
+    private Job plan(String tenantId, boolean cascade) {
+        List<String> descendants = tenantTree.descendantIds(tenantId);
+        if (!cascade && !descendants.isEmpty()) {
+            throw new KeycloakOperationException("TENANT_HAS_CHILDREN", 1035,
+                    "Tenant has " + descendants.size() + " descendant tenants; delete them first or use cascade=true.");
+        }
+        // reverse pre-order: every tenant comes after all of its descendants
+        List<String> plan = new ArrayList<>(descendants.size() + 1);
+        plan.add(tenantId);
+        plan.addAll(descendants);
+        Collections.reverse(plan);
+        return new Job(UUID.randomUUID().toString(), tenantId, cascade, plan);
+    }
+
+    /**
+     * Makes {@code job} responsible for its tenants and returns null, or returns the job that
+     * already owns its root tenant.
+     */
+    private Job claim(Job job) {
+        Job existing = job.rootTenantId == null ? null : activeByTenant.putIfAbsent(job.rootTenantId, job);
+        if (existing != null) {
+            return existing;
+        }
+        for (String id : job.plan) {
+            activeByTenant.putIfAbsent(id, job);
+        }
+        return null;
+    }
+
+    public TenantDeletionJobStatus getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Deletion job not found: " + jobId);
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * Finishes deletions interrupted by a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        List<String> pending = jdbcTemplate.queryForList(
+                "SELECT tenantid FROM tenant WHERE status = ?", String.class, STATUS_DELETING);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, String> parents = new HashMap<>();
+        tenantRepository.findAllLinks().forEach(l -> parents.put(l.getTenantId(), l.getParentTenantId()));
+        List<String> plan = new ArrayList<>(pending);
+        plan.sort(Comparator.comparingInt((String id) -> depth(id, parents)).reversed());
+
+        log.info("Resuming interrupted tenant deletion for {} tenants.", plan.size());
+        enqueue(new Job(UUID.randomUUID().toString(), null, true, plan));
+    }
+
+    private TenantDeletionJobStatus enqueue(Job job) {
+        Job running = claim(job);
+        if (running != null) {
+            return running.snapshot();
+        }
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            job.plan.forEach(id -> activeByTenant.remove(id, job));
+            log.warn("Deletion queue full, rejecting job for tenantId={}", job.rootTenantId);
+            throw new KeycloakOperationException("DELETION_QUEUE_FULL", 1036,
+                    "Too many tenants are being deleted. Please retry shortly.");
+        }
+        log.info("Queued tenant deletion job. jobId={}, rootTenantId={}, tenants={}",
+                job.id, job.rootTenantId, job.plan.size());
+        return job.snapshot();
+    }
+
+    private void run(Job job) {
+        job.started();
+        try {
+            jdbcTemplate.batchUpdate("UPDATE tenant SET status = '" + STATUS_DELETING + "' WHERE tenantid = ?",
+                    job.plan.stream().map(id -> new Object[]{id}).toList());
+            for (String tenantId : job.plan) {
+                job.current(tenantId);
+                deleteOne(job, tenantId);
+                job.tenantDone();
+            }
+            job.finished("SUCCEEDED", null, null);
+            log.info("Tenant deletion job succeeded. jobId={}, tenants={}", job.id, job.plan.size());
+        } catch (KeycloakOperationException e) {
+            job.finished("FAILED", e.getErrorCode(), e.getMessage());
+            log.error("Tenant deletion job failed. jobId={}, tenantId={}, code={}", job.id, job.currentTenantId, e.getErrorCode());
+        } catch (Exception e) {
+            job.finished("FAILED", "TENANT_DELETION_FAILED", e.getMessage());
+            log.error("Tenant deletion job failed. jobId={}, tenantId={}", job.id, job.currentTenantId, e);
+        } finally {
+            job.plan.forEach(id -> activeByTenant.remove(id, job));
+        }
+    }
+
+    private void deleteOne(Job job, String tenantId) {
+        Tenant tenant = tenantRepository.findByTenantID(tenantId).orElse(null);
+        if (tenant == null) {
+            log.debug("Tenant already gone, skipping. tenantId={}", tenantId);
+            return;
+        }
+
+        // 1. Keycloak, outside any DB transaction; an already-missing realm is fine on resume
+        if (tenant.getRealmName() != null) {
+            try {
+                kcUtil.deleteRealm(tenant.getRealmName());
+            } catch (NotFoundException e) {
+                log.info("Realm already absent, continuing. realmName={}", tenant.getRealmName());
+            } catch (Exception e) {
+                throw new KeycloakOperationException("REALM_DELETE_FAILED", 1037,
+                        "Failed to delete realm " + tenant.getRealmName() + ": " + e.getMessage());
+            }
+        }
+
+        // 2. local rows, set-based, in one short transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            for (DeleteStep step : DELETE_STEPS) {
+                job.rows(step.table(), jdbcTemplate.update(step.sql(), step.args(tenantId)));
+            }
+            // the token caches evict these issuers once this transaction commits
+            List<AuthProviderConfigChangedEvent> removedConfigs = jdbcTemplate.query(DELETE_AUTH_CONFIG,
+                    (rs, i) -> new AuthProviderConfigChangedEvent(AuthProviderConfigChangedEvent.ChangeType.DELETED,
+                            rs.getObject("auth_id", UUID.class), rs.getString("issuer_uri"), rs.getString("jwk_uri")),
+                    tenantId);
+            job.rows("auth_provider_config", removedConfigs.size());
+            removedConfigs.forEach(eventPublisher::publishEvent);
+            // the tenant row itself goes through JPA so its address rows cascade
+            tenantRepository.findById(tenantId).ifPresent(t -> {
+                tenantRepository.delete(t);
+                job.rows("tenant", 1);
+                eventPublisher.publishEvent(new TenantChangedEvent(ChangeType.DELETED, t));
+            });
+        });
+        log.info("Tenant deleted. jobId={}, tenantId={}", job.id, tenantId);
+    }
+
+    private static int depth(String id, Map<String, String> parents) {
+        int depth = 0;
+        for (String p = parents.get(id); p != null && depth < parents.size(); p = parents.get(p)) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinishedBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Job progress, written by the worker thread and read by status requests; all access is
+     * synchronized on the job.
+     */
+    private static final class Job {
+
+        private final String id;
+        private final String rootTenantId;
+        private final boolean cascade;
+        private final List<String> plan;
+        private final Instant submittedAt = Instant.now();
+        private final Map<String, Long> rowsDeleted = new LinkedHashMap<>();
+        private String state = "QUEUED";
+        private int tenantsDeleted;
+        private String currentTenantId;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private String errorCode;
+        private String errorMessage;
+
+        private Job(String id, String rootTenantId, boolean cascade, List<String> plan) {
+            this.id = id;
+            this.rootTenantId = rootTenantId;
+            this.cascade = cascade;
+            this.plan = List.copyOf(plan);
+        }
+
+        synchronized void started() {
+            state = "RUNNING";
+            startedAt = Instant.now();
+        }
+
+        synchronized void current(String tenantId) {
+            currentTenantId = tenantId;
+        }
+
+        synchronized void rows(String table, long n) {
+            rowsDeleted.merge(table, n, Long::sum);
+        }
+
+        synchronized void tenantDone() {
+            tenantsDeleted++;
+        }
+
+        synchronized void finished(String finalState, String code, String message) {
+            state = finalState;
+            finishedAt = Instant.now();
+            errorCode = code;
+            errorMessage = message;
+            if (code == null) {
+                currentTenantId = null;
+            }
+        }
+
+        synchronized boolean isFinishedBefore(Instant cutoff) {
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        }
+
+        synchronized TenantDeletionJobStatus snapshot() {
+            TenantDeletionJobStatus s = new TenantDeletionJobStatus();
+            s.setJobId(id);
+            s.setRootTenantId(rootTenantId);
+            s.setCascade(cascade);
+            s.setState(state);
+            s.setTenantsTotal(plan.size());
+            s.setTenantsDeleted(tenantsDeleted);
+            s.setCurrentTenantId(currentTenantId);
+            s.setRowsDeleted(new LinkedHashMap<>(rowsDeleted));
+            s.setSubmittedAt(submittedAt);
+            s.setStartedAt(startedAt);
+            s.setFinishedAt(finishedAt);
+            s.setErrorCode(errorCode);
+            s.setErrorMessage(errorMessage);
+            return s;
+        }
+    }
+}
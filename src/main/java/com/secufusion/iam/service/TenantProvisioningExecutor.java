@@ -0,0 +1,270 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.dto.CreateTenantRequest;
+import com.secufusion.iam.dto.ProvisioningJobStatus;
+import com.secufusion.iam.dto.ProvisioningJobStatus.StepTiming;
+import com.secufusion.iam.dto.TenantResponse;
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.exception.ResourceNotFoundException;
+import com.secufusion.iam.util.JwtUtl;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Asynchronous tenant provisioning.
+ * <p>
+ * The local skeleton is committed in CREATED_LOCAL on the request thread; the Keycloak steps
+ * then run through {@link TenantService#resumeTenantSetup(CreateTenantRequest, ProvisioningListener)}
+ * on a bounded worker pool, and progress is tracked per job id. Jobs are kept in memory for
+ * {@code tenant.provisioning.async.job-retention} after they finish; a job lost to a restart
+ * leaves its tenant in a resumable state.
+ */
+@Slf4j
+@Service
+public class TenantProvisioningExecutor {
+
+    private final TenantService tenantService;
+    private final JwtUtl jwtUtl;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration jobRetention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    /** tenant id → job currently provisioning it */
+    private final Map<String, Job> activeByTenant = new ConcurrentHashMap<>();
+
+    public TenantProvisioningExecutor(TenantService tenantService,
+                                      JwtUtl jwtUtl,
+                                      @Value("${tenant.provisioning.async.core-pool-size:4}") int corePoolSize,
+                                      @Value("${tenant.provisioning.async.max-pool-size:8}") int maxPoolSize,
+                                      @Value("${tenant.provisioning.async.queue-capacity:100}") int queueCapacity,
+                                      @Value("${tenant.provisioning.async.job-retention:PT1H}") Duration jobRetention) {
+        this.tenantService = tenantService;
+        this.jwtUtl = jwtUtl;
+        this.jobRetention = jobRetention;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tenant-provisioning-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    /**
+     * Commits the local tenant and queues the remaining steps. Submitting a tenant that already
+     * has a job in flight returns that job.
+     *
+     * @return the job's status
+     */
+    public ProvisioningJobStatus submit(HttpServletRequest request, CreateTenantRequest req) {
+        Tenant parent = jwtUtl.getTenantFromEmail(request);
+        if (parent == null) {
+            log.warn("Provisioning denied: no caller tenant for tenantName={}", req.getTenantName());
+            throw new KeycloakOperationException("ACCESS_DENIED", 1022, "Access denied to tenant.");
+        }
+        return submit(parent.getTenantID(), req);
+    }
+
+    public ProvisioningJobStatus submit(String parentTenantId, CreateTenantRequest req) {
+        purgeFinishedJobs();
+
+        // refuse before anything is written when the pool is already saturated
+        if (isSaturated()) {
+            log.warn("Provisioning queue full, rejecting tenantName={}", req.getTenantName());
+            throw new KeycloakOperationException("PROVISIONING_QUEUE_FULL", 1030,
+                    "Too many tenants are being provisioned. Please retry shortly.");
+        }
+
+        Tenant tenant = tenantService.createLocalTenant(parentTenantId, req);
+        Job job = new Job(UUID.randomUUID().toString(), tenant.getTenantID(), tenant.getTenantName());
+        Job running = activeByTenant.putIfAbsent(tenant.getTenantID(), job);
+        if (running != null) {
+            log.info("Provisioning already in flight. jobId={}, tenantId={}", running.id, tenant.getTenantID());
+            return running.snapshot();
+        }
+        jobs.put(job.id, job);
+
+        try {
+            executor.execute(() -> run(job, req));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            activeByTenant.remove(tenant.getTenantID(), job);
+            // the skeleton is committed in CREATED_LOCAL; resubmitting the same request resumes it
+            log.warn("Provisioning queue full, tenant left resumable. tenantId={}", tenant.getTenantID());
+            throw new KeycloakOperationException("PROVISIONING_QUEUE_FULL", 1030,
+                    "Too many tenants are being provisioned. Tenant " + tenant.getTenantID()
+                            + " was created locally and will be resumed when the request is retried.");
+        }
+        log.info("Queued provisioning job. jobId={}, tenantId={}", job.id, tenant.getTenantID());
+        return job.snapshot();
+    }
+
+    /**
+     * Creates and fully provisions one tenant on the worker pool; the caller bounds how many
+     * it has in flight (see {@link TenantBulkOnboardingService}).
+     */
+    public CompletableFuture<TenantResponse> provision(String parentTenantId, CreateTenantRequest req) {
+        return CompletableFuture.supplyAsync(() -> {
+            tenantService.createLocalTenant(parentTenantId, req);
+            return tenantService.resumeTenantSetup(req);
+        }, executor);
+    }
+
+    public ProvisioningJobStatus getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Provisioning job not found: " + jobId);
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, CreateTenantRequest req) {
+        job.started();
+        try {
+            tenantService.resumeTenantSetup(req, job);
+            job.finished("SUCCEEDED", null, null);
+            log.info("Provisioning job succeeded. jobId={}, tenantId={}", job.id, job.tenantId);
+        } catch (KeycloakOperationException e) {
+            job.finished("FAILED", e.getErrorCode(), e.getMessage());
+            log.error("Provisioning job failed. jobId={}, tenantId={}, code={}", job.id, job.tenantId, e.getErrorCode());
+        } catch (Exception e) {
+            job.finished("FAILED", "PROVISIONING_FAILED", e.getMessage());
+            log.error("Provisioning job failed. jobId={}, tenantId={}", job.id, job.tenantId, e);
+        } finally {
+            activeByTenant.remove(job.tenantId, job);
+        }
+    }
+
+    private boolean isSaturated() {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        return pool.getQueue().remainingCapacity() == 0 && pool.getActiveCount() >= pool.getMaximumPoolSize();
+    }
+
+    private void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinishedBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Mutable job state, written by the worker thread through the listener callbacks and read
+     * by status requests; all access is synchronized on the job.
+     */
+    private static final class Job implements ProvisioningListener {
+
+        private final String id;
+        private final String tenantId;
+        private final String tenantName;
+        private final Instant submittedAt = Instant.now();
+        private final List<StepTiming> steps = new ArrayList<>();
+        private String state = "QUEUED";
+        private String currentStep;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private String errorCode;
+        private String errorMessage;
+
+        private Job(String id, String tenantId, String tenantName) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.tenantName = tenantName;
+        }
+
+        synchronized void started() {
+            state = "RUNNING";
+            startedAt = Instant.now();
+        }
+
+        synchronized void finished(String finalState, String code, String message) {
+            state = finalState;
+            finishedAt = Instant.now();
+            errorCode = code;
+            errorMessage = message;
+            currentStep = null;
+        }
+
+        synchronized boolean isFinishedBefore(Instant cutoff) {
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        }
+
+        @Override
+        public synchronized void stepStarted(Tenant tenant, String step) {
+            currentStep = step;
+            StepTiming timing = new StepTiming();
+            timing.setStep(step);
+            timing.setStartedAt(Instant.now());
+            timing.setOutcome("RUNNING");
+            steps.add(timing);
+        }
+
+        @Override
+        public synchronized void stepCompleted(Tenant tenant, String step, long elapsedNanos) {
+            complete(step, elapsedNanos, "SUCCEEDED");
+        }
+
+        @Override
+        public synchronized void stepFailed(Tenant tenant, String step, long elapsedNanos, Exception error) {
+            complete(step, elapsedNanos, "FAILED");
+        }
+
+        private void complete(String step, long elapsedNanos, String outcome) {
+            for (int i = steps.size() - 1; i >= 0; i--) {
+                StepTiming timing = steps.get(i);
+                if (timing.getStep().equals(step) && "RUNNING".equals(timing.getOutcome())) {
+                    timing.setDurationMs(elapsedNanos / 1_000_000);
+                    timing.setOutcome(outcome);
+                    return;
+                }
+            }
+        }
+
+        synchronized ProvisioningJobStatus snapshot() {
+            ProvisioningJobStatus status = new ProvisioningJobStatus();
+            status.setJobId(id);
+            status.setTenantId(tenantId);
+            status.setTenantName(tenantName);
+            status.setState(state);
+            status.setCurrentStep(currentStep);
+            status.setSubmittedAt(submittedAt);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            if (startedAt != null) {
+                Instant end = finishedAt != null ? finishedAt : Instant.now();
+                status.setDurationMs(Duration.between(startedAt, end).toMillis());
+            }
+            List<StepTiming> copy = new ArrayList<>();
+            for (StepTiming t : steps) {
+                StepTiming c = new StepTiming();
+                c.setStep(t.getStep());
+                c.setStartedAt(t.getStartedAt());
+                c.setDurationMs(t.getDurationMs());
+                c.setOutcome(t.getOutcome());
+                copy.add(c);
+            }
+            status.setSteps(copy);
+            status.setErrorCode(errorCode);
+            status.setErrorMessage(errorMessage);
+            return status;
+        }
+    }
+}
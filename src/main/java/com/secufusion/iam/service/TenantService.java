@@ -1,18 +1,26 @@
 package com.secufusion.iam.service;
 
+import com.secufusion.iam.dto.AvailabilityResponse;
 import com.secufusion.iam.dto.CreateTenantRequest;
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.dto.TenantResponse;
 import com.secufusion.iam.entity.*;
+import com.secufusion.iam.event.TenantChangedEvent;
+import com.secufusion.iam.event.TenantChangedEvent.ChangeType;
+import com.secufusion.iam.event.UserChangedEvent;
 import com.secufusion.iam.exception.KeycloakOperationException;
 import com.secufusion.iam.exception.ResourceNotFoundException;
 import com.secufusion.iam.repository.*;
+import com.secufusion.iam.service.AvailabilityIndex.Field;
 import com.secufusion.iam.util.JwtUtl;
 import com.secufusion.iam.util.KeycloakAdminUtil;
+import com.secufusion.iam.util.KeysetPaging;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.WebApplicationException;
 
 import org.keycloak.representations.idm.ClientRepresentation;
+import org.keycloak.representations.idm.CredentialRepresentation;
 import org.keycloak.representations.idm.RealmRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
 
@@ -21,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
@@ -31,6 +40,8 @@ import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Refactored TenantService that delegates all Keycloak interactions to KeycloakAdminUtil.
@@ -82,6 +93,24 @@ public class TenantService {
     @Autowired
     private JwtUtl jwtUtl;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private UsernameGenerator usernameGenerator;
+
+    @Autowired
+    private TenantTree tenantTree;
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    @Autowired
+    private ProvisioningJournal provisioningJournal;
+
 
     @Value("${keycloak.admin.server-url}")
     private String baseUrl;
@@ -93,6 +122,14 @@ public class TenantService {
     @Value("${domain.extension}")
     private String extension;
 
+    /**
+     * How a brand-new tenant is provisioned in Keycloak:
+     * {@code stepwise} (realm, client, user, roles as separate calls) or
+     * {@code import} (one realm import rendered from {@link #buildRealmTemplate}).
+     */
+    @Value("${tenant.provisioning.mode:stepwise}")
+    private String provisioningMode;
+
     @Value("${mail.smtp.host}")
     private String smtpHost;
 
@@ -118,16 +155,71 @@ public class TenantService {
 
     @Transactional
     public TenantResponse createTenant(HttpServletRequest request, CreateTenantRequest req){
-
         Tenant parentTenant = jwtUtl.getTenantFromEmail(request);
+        if (parentTenant == null) {
+            log.warn("Create denied: no caller tenant for tenantName={}", req.getTenantName());
+            throw new KeycloakOperationException("ACCESS_DENIED", 1022, "Access denied to tenant.");
+        }
+        return createTenantUnder(parentTenant.getTenantID(), req);
+    }
 
+    /**
+     * Synchronous create: local skeleton plus the whole Keycloak flow in one transaction.
+     *
+     * @param parentTenantId owning tenant, {@code null} for the root tenant
+     */
+    @Transactional
+    public TenantResponse createTenantUnder(String parentTenantId, CreateTenantRequest req) {
         log.info("Starting createTenant for realm='{}'", req.getTenantName());
 
+        Optional<Tenant> existingOpt = findResumableTenant(req);
+        if (existingOpt.isPresent()) {
+            Tenant existing = existingOpt.get();
+            log.info("Resuming tenant setup for existing tenant. tenantId={}, status={}",
+                    existing.getTenantID(), existing.getStatus());
+            return resumeTenantSetup(req);
+        }
+
+        createLocalSkeleton(req, parentTenantId);
+
+        // Register rollback compensation: if DB rolls back, delete realm if created
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    try {
+                        log.warn("DB rollback detected for tenant '{}', attempting to delete realm.", req.getTenantName());
+                        kcUtil.deleteRealm(req.getTenantName());
+                    } catch (Exception e) {
+                        log.error("Compensation failed during realm deletion for '{}': {}", req.getTenantName(), e.getMessage(), e);
+                    }
+                }
+            }
+        });
+
+        return resumeTenantSetup(req);
+    }
+
+    /**
+     * First half of an asynchronous create: validates and commits the local tenant in
+     * CREATED_LOCAL (or returns the half-provisioned tenant with the same name) so the
+     * Keycloak steps can run later through {@link #resumeTenantSetup(CreateTenantRequest, ProvisioningListener)}.
+     */
+    @Transactional
+    public Tenant createLocalTenant(String parentTenantId, CreateTenantRequest req) {
+        log.info("Creating local tenant skeleton for realm='{}'", req.getTenantName());
+        return findResumableTenant(req).orElseGet(() -> createLocalSkeleton(req, parentTenantId));
+    }
+
+    /**
+     * Existing tenant with the requested name that is still being provisioned.
+     *
+     * @throws KeycloakOperationException if it is already active
+     */
+    private Optional<Tenant> findResumableTenant(CreateTenantRequest req) {
         Optional<Tenant> existingOpt = tenantRepository.findByTenantName(req.getTenantName());
-        boolean realmExists = kcUtil.realmExists(req.getTenantName());
 
-        log.debug("Existing tenant present={}, realmExistsInKeycloak={}",
-                existingOpt.isPresent(), realmExists);
+        log.debug("Existing tenant present={}", existingOpt.isPresent());
 
         if (existingOpt.isPresent()) {
             Tenant existing = existingOpt.get();
@@ -139,27 +231,28 @@ public class TenantService {
                         existing.getTenantID(), existing.getTenantName());
                 throw new KeycloakOperationException("TENANT_ALREADY_ACTIVE", 1015, "Tenant already active.");
             }
-
-            log.info("Resuming tenant setup for existing tenant. tenantId={}, status={}",
-                    existing.getTenantID(), existing.getStatus());
-            return resumeTenantSetup(req);
         }
+        return existingOpt;
+    }
 
+    private Tenant createLocalSkeleton(CreateTenantRequest req, String parentTenantId) {
         // Validation
         validateInputForNew(req);
 
         // Create tenant skeleton
         Tenant tenant = buildTenantSkeleton(req);
         tenant.setStatus("CREATING");
-        tenant.setParentTenantId(parentTenant.getTenantID());
+        tenant.setParentTenantId(parentTenantId);
         Tenant savedTenant = tenantRepository.save(tenant);
         log.info("Created tenant skeleton in DB. tenantId={}, status={}",
                 savedTenant.getTenantID(), savedTenant.getStatus());
+        eventPublisher.publishEvent(new TenantChangedEvent(ChangeType.CREATED, savedTenant));
 
         // Create admin skeleton
         User admin = buildAdminSkeleton(req, savedTenant);
         admin.setStatus("CREATING");
         User savedUser = userRepository.save(admin);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.ChangeType.CREATED, savedUser));
         req.setAdminUserName(savedUser.getUserName());
         log.info("Created admin user skeleton in DB. userId={}, username={}, status={}",
                 savedUser.getPkUserId(), savedUser.getUserName(), savedUser.getStatus());
@@ -196,132 +289,127 @@ public class TenantService {
         groupService.assignUserToGroup(adminGroup, savedUser);
         log.info("[AUTO-CONFIG] Admin user assigned to Admin group");
 
-        // Register rollback compensation: if DB rolls back, delete realm if created
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCompletion(int status) {
-                if (status == STATUS_ROLLED_BACK) {
-                    try {
-                        log.warn("DB rollback detected for tenant '{}', attempting to delete realm.", req.getTenantName());
-                        kcUtil.deleteRealm(req.getTenantName());
-                    } catch (Exception e) {
-                        log.error("Compensation failed during realm deletion for '{}': {}", req.getTenantName(), e.getMessage(), e);
-                    }
-                }
-            }
-        });
-
-        return resumeTenantSetup(req);
+        return savedTenant;
     }
 
+    /**
+     * Uniqueness and required-field checks for a new tenant. All DB checks run as one query
+     * while the Keycloak realm lookup runs concurrently; the first failing rule is reported in
+     * the original order (name, domain, org phone, org email, admin email, admin phone, realm).
+     */
     private void validateInputForNew(CreateTenantRequest req) {
         log.debug("Validating input for new tenant. tenantName={}, adminUserName={}, adminEmail={}, domain={}",
                 req.getTenantName(), req.getAdminUserName(), req.getAdminEmail(), req.getDomain());
 
         // tenant name - required then existence
-                if (req.getTenantName() == null || req.getTenantName().trim().isEmpty()) {
-                    log.warn("Validation failed: tenant name is required.");
-                    throw new KeycloakOperationException("ORGANIZATION_NAME_REQUIRED", 1000, "Organization name is required.");
-                }
-                log.debug("Checking tenant name availability. tenantName={}", req.getTenantName());
-                if (tenantRepository.existsByTenantName(req.getTenantName())) {
-                    log.warn("Validation failed: tenant name already exists. tenantName={}", req.getTenantName());
-                    throw new KeycloakOperationException("ORGANIZATION_NAME_ALREADY_EXISTS", 1001, "Organization name already exists.");
-                }
+        if (req.getTenantName() == null || req.getTenantName().trim().isEmpty()) {
+            log.warn("Validation failed: tenant name is required.");
+            throw new KeycloakOperationException("ORGANIZATION_NAME_REQUIRED", 1000, "Organization name is required.");
+        }
 
-                // domain - required then normalize & existence
-                if (req.getDomain() == null || req.getDomain().trim().isEmpty()) {
-                    log.warn("Validation failed: domain is required.");
-                    throw new KeycloakOperationException("INVALID_DOMAIN", 1007, "A valid domain must be provided.");
-                }
-                String dbDomain = normalizeDomainForDB(req.getDomain());
-                log.debug("Checking domain availability. normalizedDomain={}", dbDomain);
-                if (tenantRepository.existsByDomain(dbDomain)) {
-                    log.warn("Validation failed: domain already exists. normalizedDomain={}", dbDomain);
-                    throw new KeycloakOperationException("DOMAIN_ALREADY_EXISTS", 1002, "This domain is already registered.");
-                }
+        CompletableFuture<Boolean> realmExists = kcUtil.realmExistsAsync(req.getTenantName());
+
+        String dbDomain = isBlank(req.getDomain()) ? null : normalizeDomainForDB(req.getDomain());
+        Address address = req.getPermanentAddress();
+        TenantRepository.NewTenantConflicts conflicts = tenantRepository.findNewTenantConflicts(
+                req.getTenantName(),
+                dbDomain,
+                blankToNull(req.getPhoneNo()),
+                blankToNull(req.getEmail()),
+                blankToNull(req.getAdminEmail()),
+                blankToNull(req.getAdminPhoneNumber()),
+                req.getRegion(),
+                address != null ? address.getCountry() : null,
+                address != null ? address.getState() : null,
+                address != null ? address.getCity() : null
+        );
+        log.debug("Uniqueness check for tenantName={}: nameTaken={}, domainTaken={}, phoneTaken={}, emailTaken={}, adminEmailTaken={}, adminPhoneTaken={}",
+                req.getTenantName(), conflicts.getTenantNameTaken(), conflicts.getDomainTaken(), conflicts.getPhoneNoTaken(),
+                conflicts.getEmailTaken(), conflicts.getAdminEmailTaken(), conflicts.getAdminPhoneNoTaken());
 
-                // organization phone - required then existence
-                if (req.getPhoneNo() == null || req.getPhoneNo().trim().isEmpty()) {
-                    log.warn("Validation failed: organization phone number is required.");
-                    throw new KeycloakOperationException("ORGANIZATION_PHONE_NUMBER_REQUIRED", 1008, "Organization phone number is required.");
-                }
-                log.debug("Checking organization phone availability. phoneNo={}", req.getPhoneNo());
-                if (tenantRepository.existsByPhoneNo(req.getPhoneNo())) {
-                    log.warn("Validation failed: organization phone number already exists. phoneNo={}", req.getPhoneNo());
-                    throw new KeycloakOperationException("ORGANIZATION_PHONE_NUMBER_ALREADY_EXISTS", 1009, "Organization Phone number already exists.");
-                }
+        if (Boolean.TRUE.equals(conflicts.getTenantNameTaken())) {
+            log.warn("Validation failed: tenant name already exists. tenantName={}", req.getTenantName());
+            throw new KeycloakOperationException("ORGANIZATION_NAME_ALREADY_EXISTS", 1001, "Organization name already exists.");
+        }
 
-                // organization email - required then existence
-                if (req.getEmail() == null || req.getEmail().trim().isEmpty()) {
-                    log.warn("Validation failed: organization email is required.");
-                    throw new KeycloakOperationException("ORGANIZATION_EMAIL_REQUIRED", 1011, "Organization email is required.");
-                }
-                log.debug("Checking organization email availability. email={}", req.getEmail());
-                if (tenantRepository.existsByEmail(req.getEmail())) {
-                    log.warn("Validation failed: email already exists in tenant table. email={}", req.getEmail());
-                    throw new KeycloakOperationException("ORGANIZATION_EMAIL_ALREADY_EXISTS", 1012, "Organization email already exists.");
-                }
+        // domain - required then existence
+        if (dbDomain == null) {
+            log.warn("Validation failed: domain is required.");
+            throw new KeycloakOperationException("INVALID_DOMAIN", 1007, "A valid domain must be provided.");
+        }
+        if (Boolean.TRUE.equals(conflicts.getDomainTaken())) {
+            log.warn("Validation failed: domain already exists. normalizedDomain={}", dbDomain);
+            throw new KeycloakOperationException("DOMAIN_ALREADY_EXISTS", 1002, "This domain is already registered.");
+        }
 
-                // admin username - (kept commented as before)
-        //        if (req.getAdminUserName() == null || req.getAdminUserName().trim().isEmpty()) {
-        //            log.warn("Validation failed: admin username is required.");
-        //            throw new KeycloakOperationException("ADMIN_USERNAME_REQUIRED", 1006, "Admin username is required.");
-        //        }
-        //        if (userRepository.findByUserName(req.getAdminUserName()).isPresent()) {
-        //            log.warn("Validation failed: username already taken. username={}", req.getAdminUserName());
-        //            throw new KeycloakOperationException("ADMIN_USERNAME_ALREADY_EXISTS", 1003, "Admin Username already taken.");
-        //        }
-
-                // admin email - required then existence
-                if (req.getAdminEmail() == null || req.getAdminEmail().trim().isEmpty()) {
-                    log.warn("Validation failed: admin email is required.");
-                    throw new KeycloakOperationException("ADMIN_EMAIL_REQUIRED", 1007, "Admin email is required.");
-                }
-                log.debug("Checking admin email availability. adminEmail={}", req.getAdminEmail());
-                if (userRepository.findByEmail(req.getAdminEmail()).isPresent()) {
-                    log.warn("Validation failed: email already exists. email={}", req.getAdminEmail());
-                    throw new KeycloakOperationException("ADMIN_EMAIL_ALREADY_EXISTS", 1004, "Admin Email already exists.");
-                }
+        // organization phone - required then existence
+        if (isBlank(req.getPhoneNo())) {
+            log.warn("Validation failed: organization phone number is required.");
+            throw new KeycloakOperationException("ORGANIZATION_PHONE_NUMBER_REQUIRED", 1008, "Organization phone number is required.");
+        }
+        if (Boolean.TRUE.equals(conflicts.getPhoneNoTaken())) {
+            log.warn("Validation failed: organization phone number already exists. phoneNo={}", req.getPhoneNo());
+            throw new KeycloakOperationException("ORGANIZATION_PHONE_NUMBER_ALREADY_EXISTS", 1009, "Organization Phone number already exists.");
+        }
 
-                // admin phone - required then existence
-                if (req.getAdminPhoneNumber() == null || req.getAdminPhoneNumber().trim().isEmpty()) {
-                    log.warn("Validation failed: admin phone number is required.");
-                    throw new KeycloakOperationException("ADMIN_PHONE_NUMBER_REQUIRED", 1017, "Admin phone number is required.");
-                }
-                log.debug("Checking admin phone availability. adminPhone={}", req.getAdminPhoneNumber());
-                if (userRepository.findByPhoneNo(req.getAdminPhoneNumber()).isPresent()) {
-                    log.warn("Validation failed: admin phone number already exists. phoneNo={}", req.getAdminPhoneNumber());
-                    throw new KeycloakOperationException("ADMIN_PHONE_NUMBER_ALREADY_EXISTS", 1016, "Admin Phone number already exists.");
-                }
+        // organization email - required then existence
+        if (isBlank(req.getEmail())) {
+            log.warn("Validation failed: organization email is required.");
+            throw new KeycloakOperationException("ORGANIZATION_EMAIL_REQUIRED", 1011, "Organization email is required.");
+        }
+        if (Boolean.TRUE.equals(conflicts.getEmailTaken())) {
+            log.warn("Validation failed: email already exists in tenant table. email={}", req.getEmail());
+            throw new KeycloakOperationException("ORGANIZATION_EMAIL_ALREADY_EXISTS", 1012, "Organization email already exists.");
+        }
+
+        // admin email - required then existence
+        if (isBlank(req.getAdminEmail())) {
+            log.warn("Validation failed: admin email is required.");
+            throw new KeycloakOperationException("ADMIN_EMAIL_REQUIRED", 1007, "Admin email is required.");
+        }
+        if (Boolean.TRUE.equals(conflicts.getAdminEmailTaken())) {
+            log.warn("Validation failed: email already exists. email={}", req.getAdminEmail());
+            throw new KeycloakOperationException("ADMIN_EMAIL_ALREADY_EXISTS", 1004, "Admin Email already exists.");
+        }
+
+        // admin phone - required then existence
+        if (isBlank(req.getAdminPhoneNumber())) {
+            log.warn("Validation failed: admin phone number is required.");
+            throw new KeycloakOperationException("ADMIN_PHONE_NUMBER_REQUIRED", 1017, "Admin phone number is required.");
+        }
+        if (Boolean.TRUE.equals(conflicts.getAdminPhoneNoTaken())) {
+            log.warn("Validation failed: admin phone number already exists. phoneNo={}", req.getAdminPhoneNumber());
+            throw new KeycloakOperationException("ADMIN_PHONE_NUMBER_ALREADY_EXISTS", 1016, "Admin Phone number already exists.");
+        }
 
-                // region/country/state/city validation (unchanged)
-                boolean b = regionRepository.existsRegionCountryStateCity(
-                        req.getRegion(),
-                        req.getPermanentAddress() != null ? req.getPermanentAddress().getCountry() : null,
-                        req.getPermanentAddress() != null ? req.getPermanentAddress().getState() : null,
-                        req.getPermanentAddress() != null ? req.getPermanentAddress().getCity() : null
-                );
-                if (!b) {
-                    log.warn("Validation failed: region/country/state/city combination is invalid. region={}, country={}, state={}, city={}",
-                            req.getRegion(),
-                            req.getPermanentAddress() != null ? req.getPermanentAddress().getCountry() : null,
-                            req.getPermanentAddress() != null ? req.getPermanentAddress().getState() : null,
-                            req.getPermanentAddress() != null ? req.getPermanentAddress().getCity() : null);
+        // region/country/state/city validation (warning only, unchanged)
+        if (!Boolean.TRUE.equals(conflicts.getRegionValid())) {
+            log.warn("Validation failed: region/country/state/city combination is invalid. region={}, country={}, state={}, city={}",
+                    req.getRegion(),
+                    address != null ? address.getCountry() : null,
+                    address != null ? address.getState() : null,
+                    address != null ? address.getCity() : null);
         //            throw new KeycloakOperationException("INVALID_REGION_COUNTRY_STATE_CITY", 1021,
         //                    "The combination of region, country, state, and city is invalid.");
-                }
+        }
 
-                // final: check Keycloak realm existence
-                boolean realmExists = kcUtil.realmExists(req.getTenantName());
-                if (realmExists) {
-                    log.warn("Validation failed: realm already exists in Keycloak. realm={}", req.getTenantName());
-                    throw new KeycloakOperationException("ORGANIZATION_REALM_ALREADY_EXISTS", 1005, "Organization Realm already exists.");
-                }
+        // final: check Keycloak realm existence
+        if (realmExists.join()) {
+            log.warn("Validation failed: realm already exists in Keycloak. realm={}", req.getTenantName());
+            throw new KeycloakOperationException("ORGANIZATION_REALM_ALREADY_EXISTS", 1005, "Organization Realm already exists.");
+        }
 
         log.debug("Validation for new tenant passed. tenantName={}", req.getTenantName());
     }
 
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    private static String blankToNull(String s) {
+        return isBlank(s) ? null : s;
+    }
+
     private Tenant buildTenantSkeleton(CreateTenantRequest req) {
         log.debug("Building tenant skeleton for tenantName={}", req.getTenantName());
         Tenant tenant = new Tenant();
@@ -351,7 +439,7 @@ public class TenantService {
         if (req.getAdminUserName() != null && !req.getAdminUserName().trim().isEmpty()) {
             generatedUsername = req.getAdminUserName().trim().toLowerCase();
         } else {
-            generatedUsername = generateUniqueUsername(req.getAdminFirstName(), req.getAdminLastName());
+            generatedUsername = usernameGenerator.generate(req.getAdminFirstName(), req.getAdminLastName());
         }
         admin.setUserName(generatedUsername);
         admin.setEmail(req.getAdminEmail());
@@ -361,50 +449,21 @@ public class TenantService {
         return admin;
     }
 
-    private String generateUniqueUsername(String first, String last) {
-        String f = first == null ? "" : first.trim().toLowerCase().replaceAll("[^a-z]", "");
-        String l = last == null ? "" : last.trim().toLowerCase().replaceAll("[^a-z]", "");
-        if (f.isEmpty() && l.isEmpty()) {
-            f = "user";
-        }
-        Random rnd = new Random();
-        for (int attempt = 0; attempt < 200; attempt++) {
-            int targetLen = 5 + rnd.nextInt(4); // 5..8
-            String base = (f + l);
-            if (base.isEmpty()) base = "user";
-            int namePartLen = Math.max(1, targetLen - 1); // reserve 1 digit
-            String namePart;
-            if (base.length() <= namePartLen) {
-                namePart = base;
-            } else {
-                int start = rnd.nextInt(base.length() - namePartLen + 1);
-                namePart = base.substring(start, start + namePartLen);
-            }
-            int digit = rnd.nextInt(10);
-            String candidate = (namePart + digit).replaceAll("[^a-z0-9]", "");
-            // pad if too short
-            while (candidate.length() < targetLen) {
-                candidate = candidate + (char) ('a' + rnd.nextInt(26));
-            }
-            if (!Character.isLetter(candidate.charAt(0))) {
-                candidate = "u" + candidate;
-            }
-            if (candidate.length() > 8) {
-                candidate = candidate.substring(0, 8);
-            }
-            if (candidate.length() < 5) continue;
-            if (!userRepository.findByUserName(candidate).isPresent()) {
-                return candidate;
-            }
-        }
-        throw new KeycloakOperationException("USERNAME_GENERATION_FAILED", 1020, "Unable to generate unique username.");
-    }
-
     // ============================================================================ RESUME FLOW
 
     @Transactional
     public TenantResponse resumeTenantSetup(CreateTenantRequest req) {
+        return resumeTenantSetup(req, ProvisioningListener.NOOP);
+    }
+
+    /**
+     * Runs the remaining provisioning steps for the tenant named in {@code req}, starting from
+     * its persisted status. Every step is journaled and reported to {@code jobListener}.
+     */
+    @Transactional
+    public TenantResponse resumeTenantSetup(CreateTenantRequest req, ProvisioningListener jobListener) {
         log.info("Resuming tenant setup. tenantName={}", req.getTenantName());
+        ProvisioningListener listener = provisioningJournal.newRun().andThen(jobListener);
 
         Tenant tenant = tenantRepository.findByTenantName(req.getTenantName())
                 .orElseThrow(() -> {
@@ -417,33 +476,29 @@ public class TenantService {
         return switch (tenant.getStatus()) {
             case "CREATING", "CREATED_LOCAL" -> {
                 log.info("Starting full setup from REALM for tenantId={}", tenant.getTenantID());
-                createRealm(tenant, req);
-                createClient(tenant, req);
-                createKeycloakAdminUser(tenant, req);
-                finalizeAndSendEmails(tenant, req);
-                saveAuthProviderConfig(tenant, req);
-                yield buildResponse(tenant);
+                boolean imported = "import".equalsIgnoreCase(provisioningMode)
+                        && runStep(tenant, ProvisioningListener.STEP_REALM_IMPORT, listener, () -> importRealm(tenant, req));
+                if (!imported) {
+                    runStep(tenant, ProvisioningListener.STEP_REALM, listener, () -> createRealm(tenant, req));
+                    runStep(tenant, ProvisioningListener.STEP_CLIENT, listener, () -> createClient(tenant, req));
+                    runStep(tenant, ProvisioningListener.STEP_USER, listener, () -> createKeycloakAdminUser(tenant, req));
+                }
+                yield finishSetup(tenant, req, listener);
             }
             case "REALM_CREATED" -> {
                 log.info("Resuming from CLIENT creation for tenantId={}", tenant.getTenantID());
-                createClient(tenant, req);
-                createKeycloakAdminUser(tenant, req);
-                finalizeAndSendEmails(tenant, req);
-                saveAuthProviderConfig(tenant, req);
-                yield buildResponse(tenant);
+                runStep(tenant, ProvisioningListener.STEP_CLIENT, listener, () -> createClient(tenant, req));
+                runStep(tenant, ProvisioningListener.STEP_USER, listener, () -> createKeycloakAdminUser(tenant, req));
+                yield finishSetup(tenant, req, listener);
             }
             case "CLIENT_CREATED" -> {
                 log.info("Resuming from USER creation for tenantId={}", tenant.getTenantID());
-                createKeycloakAdminUser(tenant, req);
-                finalizeAndSendEmails(tenant, req);
-                saveAuthProviderConfig(tenant, req);
-                yield buildResponse(tenant);
+                runStep(tenant, ProvisioningListener.STEP_USER, listener, () -> createKeycloakAdminUser(tenant, req));
+                yield finishSetup(tenant, req, listener);
             }
             case "USER_CREATED" -> {
                 log.info("Resuming from FINALIZE/EMAIL step for tenantId={}", tenant.getTenantID());
-                finalizeAndSendEmails(tenant, req);
-                saveAuthProviderConfig(tenant, req);
-                yield buildResponse(tenant);
+                yield finishSetup(tenant, req, listener);
             }
             case "ACTIVE" -> {
                 log.info("Tenant already ACTIVE, returning existing response. tenantId={}", tenant.getTenantID());
@@ -458,6 +513,32 @@ public class TenantService {
         };
     }
 
+    private TenantResponse finishSetup(Tenant tenant, CreateTenantRequest req, ProvisioningListener listener) {
+        runStep(tenant, ProvisioningListener.STEP_FINALIZE, listener, () -> finalizeAndSendEmails(tenant, req));
+        runStep(tenant, ProvisioningListener.STEP_AUTH_CONFIG, listener, () -> saveAuthProviderConfig(tenant, req));
+        return buildResponse(tenant);
+    }
+
+    private void runStep(Tenant tenant, String step, ProvisioningListener listener, Runnable action) {
+        runStep(tenant, step, listener, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T runStep(Tenant tenant, String step, ProvisioningListener listener, Supplier<T> action) {
+        listener.stepStarted(tenant, step);
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            listener.stepCompleted(tenant, step, System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            listener.stepFailed(tenant, step, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
     // ============================================================================ REALM
 
     private void createRealm(Tenant tenant, CreateTenantRequest req) {
@@ -495,24 +576,126 @@ public class TenantService {
         log.info("Tenant status updated to REALM_CREATED. tenantId={}", tenant.getTenantID());
     }
 
+    // ============================================================================ REALM IMPORT
+
+    /**
+     * Provisions realm, client, admin user and its realm-admin mapping with one realm import,
+     * then triggers the required-actions email: two Keycloak calls instead of the stepwise chain.
+     * On success the tenant moves straight to USER_CREATED.
+     *
+     * @return {@code false} if the realm already exists, so the caller falls back to the
+     * stepwise flow which skips whatever is already in place
+     */
+    private boolean importRealm(Tenant tenant, CreateTenantRequest req) {
+        if (kcUtil.realmExists(req.getTenantName())) {
+            log.info("Realm already exists for '{}', resuming stepwise instead of import.", req.getTenantName());
+            return false;
+        }
+
+        User admin = tenant.getUsers().stream().filter(User::isDefaultUser).findFirst().orElseThrow(() -> {
+            log.error("Default admin user not found in local DB for tenantId={}", tenant.getTenantID());
+            return new IllegalStateException("Default admin user not found.");
+        });
+
+        String adminKcId = UUID.randomUUID().toString();
+        RealmRepresentation realmRep = buildRealmTemplate(req, adminKcId);
+
+        log.info("Importing realm '{}' with client and admin user in one call", req.getTenantName());
+        try {
+            kcUtil.createRealm(realmRep);
+        } catch (WebApplicationException ex) {
+            if (ex.getResponse() != null && ex.getResponse().getStatus() == 409) {
+                log.warn("Realm already exists (conflict) for {}, resuming stepwise.", req.getTenantName());
+                return false;
+            }
+            log.error("Failed to import realm {}: {}", req.getTenantName(), ex.getMessage(), ex);
+            throw new KeycloakOperationException("REALM_CREATION_FAILED", 1006,
+                    "Unable to create tenant environment.");
+        } catch (Exception ex) {
+            log.error("Failed to import realm {}: {}", req.getTenantName(), ex.getMessage(), ex);
+            throw new KeycloakOperationException("REALM_CREATION_FAILED", 1006,
+                    "Unable to create tenant environment.");
+        }
+
+        try {
+            kcUtil.sendRequiredActionEmail(req.getTenantName(), adminKcId, requiredActionsFor(req));
+        } catch (Exception e) {
+            log.error("Failed to send required-action email for user {}: {}", adminKcId, e.getMessage(), e);
+            throw new KeycloakOperationException("USER_CONFIG_FAILED", 1010, "Unable to configure tenant admin user.");
+        }
+
+        admin.setKeycloakUserId(adminKcId);
+        admin.setStatus("ACTIVE");
+        userRepository.save(admin);
+
+        tenant.setStatus("USER_CREATED");
+        tenantRepository.save(tenant);
+        log.info("Tenant status updated to USER_CREATED (realm import). tenantId={}", tenant.getTenantID());
+        return true;
+    }
+
+    /**
+     * Full realm for a new tenant: SMTP settings, the tenant's public client and the admin user
+     * (pre-assigned id, optional password, realm-admin mapping, required actions).
+     */
+    private RealmRepresentation buildRealmTemplate(CreateTenantRequest req, String adminKcId) {
+        RealmRepresentation realmRep = new RealmRepresentation();
+        realmRep.setRealm(req.getTenantName());
+        realmRep.setEnabled(true);
+        realmRep.setSmtpServer(getSmtpConfig());
+        realmRep.setClients(List.of(buildClientRepresentation(req)));
+
+        boolean hasPassword = req.getAdminPassword() != null && !req.getAdminPassword().trim().isEmpty();
+
+        UserRepresentation user = new UserRepresentation();
+        user.setId(adminKcId);
+        user.setUsername(req.getAdminUserName());
+        user.setEmail(req.getAdminEmail());
+        user.setFirstName(req.getAdminFirstName());
+        user.setLastName(req.getAdminLastName());
+        user.setEnabled(true);
+        user.setEmailVerified(hasPassword);
+        user.setRequiredActions(requiredActionsFor(req));
+        user.setClientRoles(Map.of("realm-management", List.of("realm-admin")));
+        if (hasPassword) {
+            CredentialRepresentation cred = new CredentialRepresentation();
+            cred.setType(CredentialRepresentation.PASSWORD);
+            cred.setValue(req.getAdminPassword());
+            cred.setTemporary(false);
+            user.setCredentials(List.of(cred));
+        }
+        realmRep.setUsers(List.of(user));
+        return realmRep;
+    }
+
+    private List<String> requiredActionsFor(CreateTenantRequest req) {
+        boolean hasPassword = req.getAdminPassword() != null && !req.getAdminPassword().trim().isEmpty();
+        return hasPassword ? List.of("VERIFY_EMAIL") : List.of("UPDATE_PASSWORD", "VERIFY_EMAIL");
+    }
+
     // ============================================================================ CLIENT
 
+    private ClientRepresentation buildClientRepresentation(CreateTenantRequest req) {
+        String redirectUri = normalizeDomainForRedirect(req.getDomain());
+
+        ClientRepresentation clientRep = new ClientRepresentation();
+        clientRep.setClientId(req.getTenantName());
+        clientRep.setName(req.getTenantName());
+        clientRep.setProtocol("openid-connect");
+        clientRep.setPublicClient(true);
+        clientRep.setRedirectUris(List.of(redirectUri));
+        clientRep.setWebOrigins(List.of("*"));
+        clientRep.setStandardFlowEnabled(true);
+        clientRep.setEnabled(true);
+        return clientRep;
+    }
+
     private void createClient(Tenant tenant, CreateTenantRequest req) {
         log.info("Ensuring Keycloak client exists for realm={} clientId={}", req.getTenantName(), req.getTenantName());
 
         boolean existsBefore = kcUtil.clientExists(req.getTenantName(), req.getTenantName());
         if (!existsBefore) {
-            String redirectUri = normalizeDomainForRedirect(req.getDomain());
-
-            ClientRepresentation clientRep = new ClientRepresentation();
-            clientRep.setClientId(req.getTenantName());
-            clientRep.setName(req.getTenantName());
-            clientRep.setProtocol("openid-connect");
-            clientRep.setPublicClient(true);
-            clientRep.setRedirectUris(List.of(redirectUri));
-            clientRep.setWebOrigins(List.of("*"));
-            clientRep.setStandardFlowEnabled(true);
-            clientRep.setEnabled(true);
+            ClientRepresentation clientRep = buildClientRepresentation(req);
 
             try {
                 kcUtil.createClient(req.getTenantName(), clientRep);
@@ -569,7 +752,8 @@ public class TenantService {
                     req.getAdminEmail(),
                     req.getAdminFirstName(),
                     req.getAdminLastName(),
-                    req.getAdminPassword() != null && !req.getAdminPassword().trim().isEmpty()
+                    req.getAdminPassword() != null && !req.getAdminPassword().trim().isEmpty(),
+                    false // already checked by username above
             );
 
             // kcUtil.createUser returns null on conflict in this util, but we already checked above.
@@ -688,7 +872,7 @@ public class TenantService {
      * "support.motivitylabs.net" -> "support.motivitylabs.net"
      * "abc.xyz.com" -> "abc.motivitylabs.net"
      */
-    private String normalizeDomainForDB(String domain) {
+    public String normalizeDomainForDB(String domain) {
         log.debug("Normalizing domain for DB. rawDomain={}", domain);
 
         if (domain == null || domain.trim().isBlank()) {
@@ -774,6 +958,7 @@ public class TenantService {
         t.setBillingAddress(req.getBillingAddress());
         t.setBillingCycleType(req.getBillingCycleType());
         tenantRepository.save(t);
+        eventPublisher.publishEvent(new TenantChangedEvent(ChangeType.UPDATED, t));
         log.info("Tenant updated successfully. tenantId={}", id);
         return buildResponse(t);
     }
@@ -783,54 +968,16 @@ public class TenantService {
         log.debug("Authorizing update. requesterTenantId={}, targetTenantId={}",
                 requester != null ? requester.getTenantID() : "null", target.getTenantID());
 
-        // allow if requester is the same tenant
-        if (requester != null && requester.getTenantID().equals(target.getTenantID())) {
+        // allow if requester is the same tenant or any ancestor of it
+        if (requester != null && tenantTree.isAncestorOrSelf(requester.getTenantID(), target.getTenantID())) {
             return;
         }
 
-        // traverse upwards from target through parentTenantId chain to see if requester is an ancestor
-        String currentParentId = target.getParentTenantId();
-        while (currentParentId != null && !currentParentId.isBlank()) {
-            if (requester != null && currentParentId.equals(requester.getTenantID())) {
-                return;
-            }
-            Optional<Tenant> parentOpt = tenantRepository.findByTenantID(currentParentId);
-            if (parentOpt.isEmpty()) break;
-            currentParentId = parentOpt.get().getParentTenantId();
-        }
-
         log.warn("Access denied: requester tenantId={} is not an ancestor of tenantId={}",
                 requester != null ? requester.getTenantID() : "null", target.getTenantID());
         throw new KeycloakOperationException("ACCESS_DENIED", 1022, "Access denied to tenant.");
     }
 
-    @Transactional
-    public void deleteTenant(String id) {
-        log.info("Deleting tenant. tenantId={}", id);
-
-        Tenant t = tenantRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.warn("Tenant not found for delete. tenantId={}", id);
-                    return new ResourceNotFoundException("Tenant not found: " + id);
-                });
-
-        try {
-            log.info("Attempting to delete Keycloak realm. realmName={}", t.getRealmName());
-            kcUtil.deleteRealm(t.getRealmName());
-            log.info("Keycloak realm deleted successfully. realmName={}", t.getRealmName());
-        } catch (Exception e) {
-            log.warn("Failed to delete Keycloak realm, continuing with local delete. realmName={}, error={}",
-                    t.getRealmName(), e.getMessage(), e);
-        }
-
-        List<User> users = userRepository.findByTenant(t);
-        log.debug("Deleting {} users for tenantId={}", users.size(), id);
-        userRepository.deleteAll(users);
-
-        tenantRepository.delete(t);
-        log.info("Tenant deleted successfully from DB. tenantId={}", id);
-    }
-
  @Transactional
  public TenantResponse getTenant(String id) {
      log.info("Fetching tenant by ID. tenantId={}", id);
@@ -854,22 +1001,11 @@ public class TenantService {
                  return new ResourceNotFoundException("Tenant not found: " + id);
              });
 
-     // allow if requester is the same tenant
-     if (requester != null && requester.getTenantID().equals(target.getTenantID())) {
+     // allow if requester is the same tenant or any ancestor of it
+     if (requester != null && tenantTree.isAncestorOrSelf(requester.getTenantID(), target.getTenantID())) {
          return buildResponse(target);
      }
 
-     // traverse upwards from target through parentTenantId chain to see if requester is an ancestor
-     String currentParentId = target.getParentTenantId();
-     while (currentParentId != null && !currentParentId.isBlank()) {
-         if (requester != null && currentParentId.equals(requester.getTenantID())) {
-             return buildResponse(target);
-         }
-         Optional<Tenant> parentOpt = tenantRepository.findByTenantID(currentParentId);
-         if (parentOpt.isEmpty()) break;
-         currentParentId = parentOpt.get().getParentTenantId();
-     }
-
      log.warn("Access denied: requester tenantId={} is not an ancestor of tenantId={}",
              requester != null ? requester.getTenantID() : "null", id);
      throw new KeycloakOperationException("ACCESS_DENIED", 1022, "Access denied to tenant.");
@@ -886,6 +1022,26 @@ public class TenantService {
         return responses;
     }
 
+    /**
+     * One keyset page of the direct children of {@code parentId} (default: the caller's tenant),
+     * which must be the caller's tenant or one of its descendants.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<TenantResponse> getTenantsPage(HttpServletRequest request, String parentId, String cursor, Integer size) {
+        Tenant requester = jwtUtl.getTenantFromEmail(request);
+        String parent = parentId == null || parentId.isBlank() ? requester.getTenantID() : parentId;
+        if (!tenantTree.isAncestorOrSelf(requester.getTenantID(), parent)) {
+            log.warn("Access denied: requester tenantId={} is not an ancestor of tenantId={}", requester.getTenantID(), parent);
+            throw new KeycloakOperationException("ACCESS_DENIED", 1022, "Access denied to tenant.");
+        }
+        int pageSize = keysetPaging.size(size);
+        String after = keysetPaging.after(cursor);
+        List<Tenant> rows = after == null
+                ? tenantRepository.findByParentTenantIdOrderByTenantIDAsc(parent, keysetPaging.fetchLimit(pageSize))
+                : tenantRepository.findByParentTenantIdAndTenantIDGreaterThanOrderByTenantIDAsc(parent, after, keysetPaging.fetchLimit(pageSize));
+        return keysetPaging.page(rows, pageSize, Tenant::getTenantID, this::buildResponse);
+    }
+
     @Transactional
     public List<TenantType> getAllTenantTypes(HttpServletRequest request) {
         Tenant tenantFromEmail = jwtUtl.getTenantFromEmail(request);
@@ -944,7 +1100,7 @@ public class TenantService {
     }
 
     public String checkTenantNameAvailability(String tenantName) {
-        boolean exists = tenantRepository.existsByTenantName(tenantName);
+        boolean exists = availabilityIndex.exists(Field.TENANT_NAME, tenantName, tenantRepository::existsByTenantName);
 
         if (exists) {
             return "Tenant name already exists.";
@@ -957,7 +1113,7 @@ public class TenantService {
     public String checkExistsByDomain(String domain) {
 
         String domainName = normalizeDomainForDB(domain);
-        boolean exist = tenantRepository.existsByDomain(domainName);
+        boolean exist = availabilityIndex.exists(Field.TENANT_DOMAIN, domainName, tenantRepository::existsByDomain);
 
         if (exist) {
             return "Domain Name already exists.";
@@ -968,7 +1124,7 @@ public class TenantService {
 
     public String checkPhoneNumber(String phoneNumber) {
 
-        boolean exist = tenantRepository.existsByPhoneNo(phoneNumber);
+        boolean exist = availabilityIndex.exists(Field.TENANT_PHONE, phoneNumber, tenantRepository::existsByPhoneNo);
 
         if (exist) {
             return "Phone Number already exists.";
@@ -979,7 +1135,7 @@ public class TenantService {
 
     public String checkEmail(String email) {
 
-        boolean exist = tenantRepository.existsByEmail(email);
+        boolean exist = availabilityIndex.exists(Field.TENANT_EMAIL, email, tenantRepository::existsByEmail);
 
         if (exist) {
             return "Email already exists.";
@@ -988,27 +1144,87 @@ public class TenantService {
         }
     }
 
-    public List<TenantResponse> getTenantHierarchy(HttpServletRequest request) {
-        Tenant parentTenant = jwtUtl.getTenantFromEmail(request);
-        String tenantId = parentTenant.getTenantID();
-        List<Tenant> result = new ArrayList<>();
+    /**
+     * Availability of every supplied onboarding field, answered with one query.
+     * The domain is checked (and echoed) in its normalized DB form. Values the
+     * {@link AvailabilityIndex} rules out are reported available without touching the DB.
+     */
+    public AvailabilityResponse checkAvailability(String tenantName, String domain, String phoneNumber, String email) {
+        String dbDomain = isBlank(domain) ? null : normalizeDomainForDB(domain);
+        String nameProbe = availabilityIndex.candidate(Field.TENANT_NAME, tenantName);
+        String domainProbe = availabilityIndex.candidate(Field.TENANT_DOMAIN, dbDomain);
+        String phoneProbe = availabilityIndex.candidate(Field.TENANT_PHONE, phoneNumber);
+        String emailProbe = availabilityIndex.candidate(Field.TENANT_EMAIL, email);
+
+        boolean nameTaken = false;
+        boolean domainTaken = false;
+        boolean phoneTaken = false;
+        boolean emailTaken = false;
+        if (nameProbe != null || domainProbe != null || phoneProbe != null || emailProbe != null) {
+            TenantRepository.NewTenantConflicts conflicts = tenantRepository.findNewTenantConflicts(
+                    nameProbe, domainProbe, phoneProbe, emailProbe,
+                    null, null, null, null, null, null);
+            nameTaken = availabilityIndex.taken(Field.TENANT_NAME, nameProbe, conflicts.getTenantNameTaken());
+            domainTaken = availabilityIndex.taken(Field.TENANT_DOMAIN, domainProbe, conflicts.getDomainTaken());
+            phoneTaken = availabilityIndex.taken(Field.TENANT_PHONE, phoneProbe, conflicts.getPhoneNoTaken());
+            emailTaken = availabilityIndex.taken(Field.TENANT_EMAIL, emailProbe, conflicts.getEmailTaken());
+        }
 
-        // Start recursive search
-        collectChildren(tenantId, result);
+        AvailabilityResponse response = new AvailabilityResponse();
+        if (!isBlank(tenantName)) {
+            response.add("tenantName", tenantName, !nameTaken);
+        }
+        if (dbDomain != null) {
+            response.add("domainName", dbDomain, !domainTaken);
+        }
+        if (!isBlank(phoneNumber)) {
+            response.add("phoneNumber", phoneNumber, !phoneTaken);
+        }
+        if (!isBlank(email)) {
+            response.add("tenantEmail", email, !emailTaken);
+        }
+        return response;
+    }
 
-        List<TenantResponse> responses = result.stream()
-                .map(this::buildResponse)
-                .collect(java.util.stream.Collectors.toList());
-        log.debug("Converted {} tenants to TenantResponse.", responses.size());
-        return responses;
+    public List<TenantResponse> getTenantHierarchy(HttpServletRequest request) {
+        return getTenantHierarchy(request, null, null, 0);
     }
 
-    private void collectChildren(String tenantId, List<Tenant> result) {
-        List<Tenant> children = tenantRepository.findByParentTenantId(tenantId);
+    /**
+     * The caller's descendant tenants in depth-first order, resolved with one recursive query plus
+     * one batch load of the page's rows.
+     *
+     * @param maxDepth levels below the caller to include, {@code null} for all
+     * @param limit    page size, {@code null} for everything from {@code offset}
+     */
+    @Transactional(readOnly = true)
+    public List<TenantResponse> getTenantHierarchy(HttpServletRequest request, Integer maxDepth, Integer limit, int offset) {
+        if ((maxDepth != null && maxDepth < 1) || (limit != null && limit < 1) || offset < 0) {
+            throw new KeycloakOperationException("INVALID_PAGING", 1032,
+                    "maxDepth and limit must be positive and offset must not be negative.");
+        }
+        Tenant parentTenant = jwtUtl.getTenantFromEmail(request);
+        List<TenantRepository.SubtreeNode> nodes =
+                tenantRepository.findSubtree(parentTenant.getTenantID(), maxDepth, limit, offset);
+        if (nodes.isEmpty()) {
+            return List.of();
+        }
 
-        for (Tenant child : children) {
-            result.add(child);
-            collectChildren(child.getTenantID(), result); // recursive
+        Map<String, Tenant> byId = new HashMap<>();
+        for (Tenant t : tenantRepository.findByTenantIDIn(nodes.stream().map(TenantRepository.SubtreeNode::getTenantId).toList())) {
+            byId.put(t.getTenantID(), t);
         }
+        List<TenantResponse> responses = new ArrayList<>(nodes.size());
+        for (TenantRepository.SubtreeNode node : nodes) {
+            Tenant t = byId.get(node.getTenantId());
+            if (t != null) { // deleted between the two statements
+                TenantResponse resp = buildResponse(t);
+                resp.setDepth(node.getDepth());
+                responses.add(resp);
+            }
+        }
+        log.debug("Resolved {} descendant tenants of tenantId={} (maxDepth={}, limit={}, offset={}).",
+                responses.size(), parentTenant.getTenantID(), maxDepth, limit, offset);
+        return responses;
     }
 }
@@ -0,0 +1,314 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.event.TenantChangedEvent;
+import com.secufusion.iam.repository.TenantRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory forest of tenant parent/child links for authorization checks.
+ * <p>
+ * Every node carries a pre-order/post-order interval, so "is A an ancestor of B" is two integer
+ * comparisons instead of one {@code findByTenantID} per level. Structural changes (create, delete,
+ * reparent via {@link TenantChangedEvent}) are O(1) link updates that mark the numbering stale;
+ * the next check renumbers once in O(n). Ids the tree has not seen (created on another node, or
+ * before the initial load) are pulled in by walking their parent chain in the DB, and the whole
+ * tree is reloaded every {@code iam.tenant-tree.refresh-interval} to pick up changes made elsewhere.
+ */
+@Slf4j
+@Component
+public class TenantTree {
+
+    private static final class Node {
+        final String id;
+        Node parent;
+        final List<Node> children = new ArrayList<>(2);
+        int pre;
+        int post;
+
+        Node(String id) {
+            this.id = id;
+        }
+    }
+
+    private final TenantRepository tenantRepository;
+    private final Duration refreshInterval;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Node> nodes = new HashMap<>();
+    private boolean numberingStale = true;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tenant-tree-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public TenantTree(TenantRepository tenantRepository,
+                      @Value("${iam.tenant-tree.refresh-interval:PT10M}") Duration refreshInterval) {
+        this.tenantRepository = tenantRepository;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        long intervalMs = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::reload, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * {@code true} if {@code ancestorId} is {@code tenantId} itself or any tenant above it.
+     */
+    public boolean isAncestorOrSelf(String ancestorId, String tenantId) {
+        if (ancestorId == null || tenantId == null) {
+            return false;
+        }
+        if (ancestorId.equals(tenantId)) {
+            return true;
+        }
+        lock.readLock().lock();
+        try {
+            Node a = nodes.get(ancestorId);
+            Node b = nodes.get(tenantId);
+            if (a != null && b != null && !numberingStale) {
+                return a.pre < b.pre && b.post < a.post;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        loadMissing(ancestorId);
+        loadMissing(tenantId);
+        lock.writeLock().lock();
+        try {
+            Node a = nodes.get(ancestorId);
+            Node b = nodes.get(tenantId);
+            if (a == null || b == null) {
+                return false;
+            }
+            renumberIfStale();
+            return a.pre < b.pre && b.post < a.post;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of every tenant below {@code tenantId}, in pre-order.
+     */
+    public List<String> descendantIds(String tenantId) {
+        loadMissing(tenantId);
+        lock.readLock().lock();
+        try {
+            Node root = nodes.get(tenantId);
+            if (root == null) {
+                return List.of();
+            }
+            List<String> ids = new ArrayList<>();
+            Deque<Node> stack = new ArrayDeque<>();
+            pushChildren(stack, root);
+            while (!stack.isEmpty()) {
+                Node n = stack.pop();
+                ids.add(n.id);
+                pushChildren(stack, n);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantChanged(TenantChangedEvent event) {
+        Tenant tenant = event.tenant();
+        if (tenant == null || tenant.getTenantID() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            switch (event.type()) {
+                case CREATED, UPDATED -> link(tenant.getTenantID(), tenant.getParentTenantId());
+                case DELETED -> remove(tenant.getTenantID());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void reload() {
+        try {
+            List<TenantRepository.TenantLink> links = tenantRepository.findAllLinks();
+            Map<String, Node> fresh = new HashMap<>(links.size() * 2);
+            for (TenantRepository.TenantLink l : links) {
+                fresh.put(l.getTenantId(), new Node(l.getTenantId()));
+            }
+            for (TenantRepository.TenantLink l : links) {
+                Node parent = l.getParentTenantId() != null ? fresh.get(l.getParentTenantId()) : null;
+                if (parent != null) {
+                    Node child = fresh.get(l.getTenantId());
+                    child.parent = parent;
+                    parent.children.add(child);
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                nodes = fresh;
+                numberingStale = true;
+                renumberIfStale();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Tenant tree reloaded. tenants={}", fresh.size());
+        } catch (Exception e) {
+            log.warn("Failed to reload tenant tree, keeping previous. error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pulls {@code id} and any unknown ancestors in from the DB. The parent chain is read without
+     * holding the lock; the write lock is only taken to link what was found, so a slow query never
+     * blocks other checks.
+     */
+    private void loadMissing(String id) {
+        List<String[]> chain = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        String current = id;
+        while (current != null && seen.add(current) && !contains(current)) {
+            Optional<Tenant> t = tenantRepository.findByTenantID(current);
+            if (t.isEmpty()) {
+                break;
+            }
+            String parentId = t.get().getParentTenantId();
+            chain.add(new String[]{current, parentId});
+            current = parentId;
+        }
+        if (chain.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // top-down, and never over a node an event or reload put in meanwhile
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                String[] link = chain.get(i);
+                if (!nodes.containsKey(link[0])) {
+                    link(link[0], link[1]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean contains(String id) {
+        lock.readLock().lock();
+        try {
+            return nodes.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- under write lock ----
+
+    private void link(String id, String parentId) {
+        Node node = nodes.computeIfAbsent(id, Node::new);
+        Node parent = parentId != null && !parentId.isBlank() ? nodes.computeIfAbsent(parentId, Node::new) : null;
+        if (node.parent == parent) {
+            return;
+        }
+        // refuse a reparent that would create a cycle
+        for (Node p = parent; p != null; p = p.parent) {
+            if (p == node) {
+                log.warn("Ignoring tenant reparent that would create a cycle. tenantId={}, parentTenantId={}", id, parentId);
+                return;
+            }
+        }
+        if (node.parent != null) {
+            node.parent.children.remove(node);
+        }
+        node.parent = parent;
+        if (parent != null) {
+            parent.children.add(node);
+        }
+        numberingStale = true;
+    }
+
+    private void remove(String id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return;
+        }
+        if (node.parent != null) {
+            node.parent.children.remove(node);
+        }
+        for (Node child : node.children) {
+            child.parent = null;
+        }
+        numberingStale = true;
+    }
+
+    private void renumberIfStale() {
+        if (!numberingStale) {
+            return;
+        }
+        int counter = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Boolean> exiting = new ArrayDeque<>();
+        for (Node root : nodes.values()) {
+            if (root.parent != null) {
+                continue;
+            }
+            stack.push(root);
+            exiting.push(false);
+            while (!stack.isEmpty()) {
+                Node n = stack.pop();
+                if (exiting.pop()) {
+                    n.post = counter++;
+                    continue;
+                }
+                n.pre = counter++;
+                stack.push(n);
+                exiting.push(true);
+                for (Node child : n.children) {
+                    stack.push(child);
+                    exiting.push(false);
+                }
+            }
+        }
+        numberingStale = false;
+        log.debug("Tenant tree renumbered. tenants={}", nodes.size());
+    }
+
+    /** Pushes children last-first so they pop in insertion order. */
+    private static void pushChildren(Deque<Node> stack, Node n) {
+        for (int i = n.children.size() - 1; i >= 0; i--) {
+            stack.push(n.children.get(i));
+        }
+    }
+}
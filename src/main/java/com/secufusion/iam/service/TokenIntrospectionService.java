@@ -0,0 +1,162 @@
+package com.secufusion.iam.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.secufusion.iam.config.IssuerRejectionGuard;
+import com.secufusion.iam.config.JwtDecoderRegistry;
+import com.secufusion.iam.dto.IntrospectionResponse;
+import com.secufusion.iam.entity.Groups;
+import com.secufusion.iam.entity.Roles;
+import com.secufusion.iam.entity.User;
+import com.secufusion.iam.event.JwksRotatedEvent;
+import com.secufusion.iam.repository.UserRepository;
+import com.secufusion.iam.util.JwtIssuerExtractor;
+import com.secufusion.iam.util.TokenDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validates tokens for downstream services with the same per-tenant decoders used by this
+ * service's own resource server, so introspection never calls Keycloak.
+ * <p>
+ * Results are cached per token digest for {@code iam.introspection.cache-ttl}, never past the
+ * token's own expiry, and dropped wholesale when any issuer rotates its keys.
+ */
+@Slf4j
+@Service
+public class TokenIntrospectionService {
+
+    private final JwtDecoderRegistry decoderRegistry;
+    private final IssuerRejectionGuard rejectionGuard;
+    private final UserRepository userRepository;
+    private final Cache<String, IntrospectionResponse> results;
+
+    public TokenIntrospectionService(JwtDecoderRegistry decoderRegistry,
+                                     IssuerRejectionGuard rejectionGuard,
+                                     UserRepository userRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${iam.introspection.cache-ttl:PT30S}") Duration ttl,
+                                     @Value("${iam.introspection.cache-max-size:50000}") long maxSize) {
+        this.decoderRegistry = decoderRegistry;
+        this.rejectionGuard = rejectionGuard;
+        this.userRepository = userRepository;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, IntrospectionResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, IntrospectionResponse r, long currentTime) {
+                        long nanos = ttl.toNanos();
+                        if (r.getExp() != null) {
+                            long untilExp = Duration.between(Instant.now(), Instant.ofEpochSecond(r.getExp())).toNanos();
+                            nanos = Math.min(nanos, untilExp);
+                        }
+                        return Math.max(0, nanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, IntrospectionResponse r, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, IntrospectionResponse r, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "introspection");
+    }
+
+    @Transactional(readOnly = true)
+    public IntrospectionResponse introspect(String token) {
+        if (token == null || token.isBlank()) {
+            return IntrospectionResponse.inactive();
+        }
+        return results.get(TokenDigest.sha256(token.trim()), key -> evaluate(token.trim()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<IntrospectionResponse> introspectAll(List<String> tokens) {
+        return tokens.stream().map(this::introspect).toList();
+    }
+
+    @EventListener
+    public void onKeysRotated(JwksRotatedEvent event) {
+        results.invalidateAll();
+    }
+
+    private IntrospectionResponse evaluate(String token) {
+        String issuer = JwtIssuerExtractor.extractIssuer(token);
+        if (issuer == null || !rejectionGuard.isTrusted(issuer) || rejectionGuard.isKnownUnknown(issuer)) {
+            return IntrospectionResponse.inactive();
+        }
+
+        JwtDecoder decoder = decoderRegistry.get(issuer);
+        if (decoder == null) {
+            rejectionGuard.markUnknown(issuer);
+            return IntrospectionResponse.inactive();
+        }
+
+        Jwt jwt;
+        try {
+            jwt = decoder.decode(token);
+        } catch (JwtException e) {
+            log.debug("Introspection: token rejected for issuer={}: {}", issuer, e.getMessage());
+            return IntrospectionResponse.inactive();
+        }
+
+        IntrospectionResponse response = new IntrospectionResponse();
+        response.setActive(true);
+        response.setSub(jwt.getSubject());
+        response.setIss(issuer);
+        response.setExp(jwt.getExpiresAt() != null ? jwt.getExpiresAt().getEpochSecond() : null);
+        response.setIat(jwt.getIssuedAt() != null ? jwt.getIssuedAt().getEpochSecond() : null);
+        response.setClientId(jwt.getClaimAsString("azp"));
+        response.setUsername(jwt.getClaimAsString("preferred_username"));
+
+        if (jwt.getSubject() != null) {
+            userRepository.findByKeycloakUserId(jwt.getSubject())
+                    .ifPresent(user -> applyLocalMappings(response, user));
+        }
+        return response;
+    }
+
+    private void applyLocalMappings(IntrospectionResponse response, User user) {
+        if (user.getTenant() != null) {
+            response.setTenantId(user.getTenant().getTenantID());
+        }
+        if (user.getMappedGroups() == null) {
+            response.setGroups(List.of());
+            response.setRoles(List.of());
+            return;
+        }
+        response.setGroups(user.getMappedGroups().stream()
+                .map(Groups::getName)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList());
+        response.setRoles(user.getMappedGroups().stream()
+                .filter(g -> g.getMappedRoles() != null)
+                .flatMap(g -> g.getMappedRoles().stream())
+                .map(Roles::getName)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+    }
+}
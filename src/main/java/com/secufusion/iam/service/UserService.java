@@ -1,16 +1,23 @@
 package com.secufusion.iam.service;
 
+import com.secufusion.iam.dto.AvailabilityResponse;
+import com.secufusion.iam.dto.PageResponse;
 import com.secufusion.iam.dto.UsersDto;
 import com.secufusion.iam.entity.Tenant;
 import com.secufusion.iam.entity.User;
+import com.secufusion.iam.event.UserChangedEvent;
+import com.secufusion.iam.event.UserChangedEvent.ChangeType;
 import com.secufusion.iam.exception.KeycloakOperationException;
 import com.secufusion.iam.exception.ResourceNotFoundException;
 import com.secufusion.iam.repository.TenantRepository;
 import com.secufusion.iam.repository.UserRepository;
+import com.secufusion.iam.service.AvailabilityIndex.Field;
 import com.secufusion.iam.util.KeycloakAdminUtil;
+import com.secufusion.iam.util.KeysetPaging;
 import lombok.extern.slf4j.Slf4j;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +31,9 @@ public class UserService {
     @Autowired private UserRepository userRepository;
     @Autowired private TenantRepository tenantRepository;
     @Autowired private KeycloakAdminUtil kcUtil;
+    @Autowired private AvailabilityIndex availabilityIndex;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private KeysetPaging keysetPaging;
 
     // ========================================================================
     // CREATE USER
@@ -58,6 +68,7 @@ public class UserService {
 
             User savedUser = userRepository.save(user);
             log.info("✔ Local user created successfully. userId={}", savedUser.getPkUserId());
+            eventPublisher.publishEvent(new UserChangedEvent(ChangeType.CREATED, savedUser));
 
             log.debug("Creating user in Keycloak. realm={}, username={}",
                     tenant.getRealmName(), dto.getUserName());
@@ -68,7 +79,8 @@ public class UserService {
                     dto.getEmail(),
                     dto.getFirstName(),
                     dto.getLastName(),
-                    false
+                    false,
+                    false // validateUserFields already searched Keycloak
             );
 
             if (kcUserId == null) {
@@ -152,6 +164,7 @@ public class UserService {
             //validate the groups and assign them
             user.setMappedGroups(dto.getGroups());
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(ChangeType.UPDATED, user));
 
             log.info("✔ Local DB user updated. userId={}", userId);
 
@@ -216,6 +229,7 @@ public class UserService {
         try {
             log.debug("Deleting user from DB...");
             userRepository.delete(user);
+            eventPublisher.publishEvent(new UserChangedEvent(ChangeType.DELETED, user));
             log.info("✔ Deleted user from DB. userId={}", id);
 
         } catch (Exception e) {
@@ -258,6 +272,16 @@ public class UserService {
         return list;
     }
 
+    public PageResponse<UsersDto> getUsersPage(String cursor, Integer size) {
+        int pageSize = keysetPaging.size(size);
+        String after = keysetPaging.after(cursor);
+        List<User> rows = after == null
+                ? userRepository.findAllByOrderByPkUserIdAsc(keysetPaging.fetchLimit(pageSize))
+                : userRepository.findByPkUserIdGreaterThanOrderByPkUserIdAsc(after, keysetPaging.fetchLimit(pageSize));
+        log.debug("Users page fetched. size={}, rows={}", pageSize, rows.size());
+        return keysetPaging.page(rows, pageSize, User::getPkUserId, this::mapToDto);
+    }
+
 
     // ========================================================================
     // GET USERS BY TENANT
@@ -379,7 +403,7 @@ public class UserService {
     }
 
     public String checkMobileNumber(String mobileNumber){
-        boolean check =userRepository.existsByPhoneNo(mobileNumber);
+        boolean check = availabilityIndex.exists(Field.USER_PHONE, mobileNumber, userRepository::existsByPhoneNo);
 
         if (check){
             return "Mobile Number already exists.";
@@ -388,7 +412,7 @@ public class UserService {
         }
     }
     public String checkEmail(String email){
-        boolean check =userRepository.existsByEmail(email);
+        boolean check = availabilityIndex.exists(Field.USER_EMAIL, email, userRepository::existsByEmail);
         if (check){
             return "Email already exists.";
         } else{
@@ -397,11 +421,43 @@ public class UserService {
     }
 
     public String checkUserName(String userName) {
-        boolean check = userRepository.existsByUserName(userName);
+        boolean check = availabilityIndex.exists(Field.USER_NAME, userName, userRepository::existsByUserName);
         if(check){
             return "Username already exists.";
         }else {
             return "Username is available.";
         }
     }
+
+    /**
+     * Availability of every supplied user field, answered with one query. Values the
+     * {@link AvailabilityIndex} rules out are reported available without touching the DB.
+     */
+    public AvailabilityResponse checkAvailability(String userName, String phoneNumber, String email) {
+        String nameProbe = availabilityIndex.candidate(Field.USER_NAME, userName);
+        String emailProbe = availabilityIndex.candidate(Field.USER_EMAIL, email);
+        String phoneProbe = availabilityIndex.candidate(Field.USER_PHONE, phoneNumber);
+
+        boolean nameTaken = false;
+        boolean emailTaken = false;
+        boolean phoneTaken = false;
+        if (nameProbe != null || emailProbe != null || phoneProbe != null) {
+            UserRepository.UserConflicts conflicts = userRepository.findUserConflicts(nameProbe, emailProbe, phoneProbe);
+            nameTaken = availabilityIndex.taken(Field.USER_NAME, nameProbe, conflicts.getUserNameTaken());
+            emailTaken = availabilityIndex.taken(Field.USER_EMAIL, emailProbe, conflicts.getEmailTaken());
+            phoneTaken = availabilityIndex.taken(Field.USER_PHONE, phoneProbe, conflicts.getPhoneNoTaken());
+        }
+
+        AvailabilityResponse response = new AvailabilityResponse();
+        if (userName != null && !userName.isBlank()) {
+            response.add("userName", userName, !nameTaken);
+        }
+        if (phoneNumber != null && !phoneNumber.isBlank()) {
+            response.add("phoneNumber", phoneNumber, !phoneTaken);
+        }
+        if (email != null && !email.isBlank()) {
+            response.add("email", email, !emailTaken);
+        }
+        return response;
+    }
 }
@@ -0,0 +1,184 @@
+package com.secufusion.iam.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.repository.UserRepository;
+import com.secufusion.iam.service.AvailabilityIndex.Field;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates short unique usernames (5-8 chars, derived from first/last name) for users that
+ * did not pick one.
+ * <p>
+ * Candidates are produced in batches and the whole batch is checked with one {@code IN} query on
+ * the unique {@code user_name} index. The {@link AvailabilityIndex} only orders the candidates
+ * (names it has never seen are tried first); it is local to this node, so it never decides on
+ * its own that a name is free. A chosen name is reserved in-process until the caller's transaction
+ * completes (or {@code iam.username.reservation-ttl} passes when there is none), so concurrent
+ * generators never hand out the same name; across nodes the unique constraint still decides.
+ */
+@Slf4j
+@Component
+public class UsernameGenerator {
+
+    /** First/last name pair to derive a username from. */
+    public record NameSeed(String firstName, String lastName) { }
+
+    private static final int MIN_LENGTH = 5;
+    private static final int MAX_LENGTH = 8;
+
+    private final UserRepository userRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final int batchSize;
+    private final int maxRounds;
+    private final Cache<String, Boolean> reserved;
+
+    public UsernameGenerator(UserRepository userRepository,
+                             AvailabilityIndex availabilityIndex,
+                             @Value("${iam.username.batch-size:32}") int batchSize,
+                             @Value("${iam.username.max-rounds:8}") int maxRounds,
+                             @Value("${iam.username.reservation-ttl:PT5M}") Duration reservationTtl) {
+        this.userRepository = userRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.batchSize = batchSize;
+        this.maxRounds = maxRounds;
+        this.reserved = Caffeine.newBuilder()
+                .expireAfterWrite(reservationTtl)
+                .build();
+    }
+
+    public String generate(String firstName, String lastName) {
+        return generateAll(List.of(new NameSeed(firstName, lastName))).get(0);
+    }
+
+    /**
+     * One username per seed, in order. Each round checks the candidates of every still-unresolved
+     * seed with a single query, so a bulk import costs a handful of queries rather than one per user.
+     */
+    public List<String> generateAll(List<NameSeed> seeds) {
+        String[] result = new String[seeds.size()];
+        List<String> reservedNow = new ArrayList<>();
+        int unresolved = seeds.size();
+
+        for (int round = 0; round < maxRounds && unresolved > 0; round++) {
+            List<List<String>> candidatesBySeed = new ArrayList<>(seeds.size());
+            Set<String> toQuery = new HashSet<>();
+            for (int i = 0; i < seeds.size(); i++) {
+                if (result[i] != null) {
+                    candidatesBySeed.add(List.of());
+                    continue;
+                }
+                String base = base(seeds.get(i));
+                Set<String> candidates = new LinkedHashSet<>();
+                for (int n = 0; n < batchSize * 2 && candidates.size() < batchSize; n++) {
+                    String c = candidate(base);
+                    if (reserved.getIfPresent(c) == null) {
+                        candidates.add(c);
+                    }
+                }
+                // Try names the filter has never seen first; the query below still decides.
+                List<String> ordered = new ArrayList<>(candidates.size());
+                List<String> maybeTaken = new ArrayList<>();
+                for (String c : candidates) {
+                    (availabilityIndex.mightContain(Field.USER_NAME, c) ? maybeTaken : ordered).add(c);
+                }
+                ordered.addAll(maybeTaken);
+                candidatesBySeed.add(ordered);
+                toQuery.addAll(ordered);
+            }
+            if (toQuery.isEmpty()) {
+                continue;
+            }
+
+            Set<String> taken = new HashSet<>(userRepository.findExistingUserNames(toQuery));
+            for (int i = 0; i < seeds.size(); i++) {
+                for (String c : candidatesBySeed.get(i)) {
+                    if (!taken.contains(c) && reserve(c)) {
+                        availabilityIndex.recordLookup(Field.USER_NAME, false);
+                        result[i] = c;
+                        reservedNow.add(c);
+                        unresolved--;
+                        break;
+                    }
+                }
+            }
+            log.debug("Username generation round {}: queried {} candidates, {} taken, {} seeds left",
+                    round + 1, toQuery.size(), taken.size(), unresolved);
+        }
+
+        if (unresolved > 0) {
+            reservedNow.forEach(reserved::invalidate);
+            throw new KeycloakOperationException("USERNAME_GENERATION_FAILED", 1020, "Unable to generate unique username.");
+        }
+        releaseAfterTransaction(reservedNow);
+        return List.of(result);
+    }
+
+    private boolean reserve(String candidate) {
+        return reserved.asMap().putIfAbsent(candidate, Boolean.TRUE) == null;
+    }
+
+    /**
+     * Once the transaction that inserts the users completes, the unique index (and the availability
+     * filter) cover the names, so the in-process reservations can go.
+     */
+    private void releaseAfterTransaction(List<String> names) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return; // expire with the reservation TTL
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                names.forEach(reserved::invalidate);
+            }
+        });
+    }
+
+    private static String base(NameSeed seed) {
+        String f = seed.firstName() == null ? "" : seed.firstName().trim().toLowerCase().replaceAll("[^a-z]", "");
+        String l = seed.lastName() == null ? "" : seed.lastName().trim().toLowerCase().replaceAll("[^a-z]", "");
+        String base = f + l;
+        return base.isEmpty() ? "user" : base;
+    }
+
+    /**
+     * A random slice of the name plus one digit, padded with letters to 5-8 chars and always
+     * starting with a letter.
+     */
+    private static String candidate(String base) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int targetLen = MIN_LENGTH + rnd.nextInt(MAX_LENGTH - MIN_LENGTH + 1);
+        int namePartLen = Math.max(1, targetLen - 1); // reserve 1 digit
+        String namePart;
+        if (base.length() <= namePartLen) {
+            namePart = base;
+        } else {
+            int start = rnd.nextInt(base.length() - namePartLen + 1);
+            namePart = base.substring(start, start + namePartLen);
+        }
+        StringBuilder candidate = new StringBuilder(namePart).append(rnd.nextInt(10));
+        while (candidate.length() < targetLen) {
+            candidate.append((char) ('a' + rnd.nextInt(26)));
+        }
+        if (!Character.isLetter(candidate.charAt(0))) {
+            candidate.insert(0, 'u');
+        }
+        if (candidate.length() > MAX_LENGTH) {
+            candidate.setLength(MAX_LENGTH);
+        }
+        return candidate.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.secufusion.iam.util;
+
+import com.secufusion.iam.entity.Tenant;
+import lombok.Getter;
+
+import java.util.function.Function;
+
+/**
+ * Identity of the caller for the current HTTP request.
+ * <p>
+ * Built once per request from the verified {@code Jwt} in the security context (or, when the
+ * security filters did not run, from a single parse of the bearer token) and stored as a
+ * request attribute by {@link JwtUtl}. The caller's {@link Tenant} is resolved lazily on first
+ * access and then reused for the rest of the request.
+ */
+@Getter
+public class CallerContext {
+
+    static final String REQUEST_ATTRIBUTE = CallerContext.class.getName();
+
+    private final String subject;
+    private final String email;
+    private final String username;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private Tenant tenant;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private boolean tenantResolved;
+
+    public CallerContext(String subject, String email, String username) {
+        this.subject = subject;
+        this.email = email;
+        this.username = username;
+    }
+
+    /**
+     * Returns the caller's tenant, resolving it with {@code resolver} (email → tenant) the first
+     * time it is needed in this request.
+     */
+    public Tenant getTenant(Function<String, Tenant> resolver) {
+        if (!tenantResolved) {
+            tenant = email != null ? resolver.apply(email) : null;
+            tenantResolved = true;
+        }
+        return tenant;
+    }
+}
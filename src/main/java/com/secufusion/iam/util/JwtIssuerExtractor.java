@@ -0,0 +1,305 @@
+package com.secufusion.iam.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the top-level {@code iss} claim of a compact JWT without building the claim set.
+ * <p>
+ * Only the payload segment is Base64url-decoded, into a per-thread buffer that is reused
+ * between calls, and the JSON is scanned just far enough to find {@code iss}. The only
+ * allocation on the happy path is the returned issuer string. Anything malformed (missing
+ * segments, bad Base64url, broken JSON before {@code iss}, non-string issuer) yields
+ * {@code null}, never an exception.
+ */
+public final class JwtIssuerExtractor {
+
+    private static final int INITIAL_BUFFER = 4096;
+
+    private static final byte[] ISS = {'i', 's', 's'};
+
+    private static final int[] BASE64URL = new int[128];
+
+    static {
+        Arrays.fill(BASE64URL, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER]);
+
+    private JwtIssuerExtractor() {
+    }
+
+    public static String extractIssuer(String token) {
+        if (token == null) {
+            return null;
+        }
+        int firstDot = token.indexOf('.');
+        if (firstDot < 0) {
+            return null;
+        }
+        int secondDot = token.indexOf('.', firstDot + 1);
+        int payloadEnd = secondDot < 0 ? token.length() : secondDot;
+
+        byte[] buf = BUFFER.get();
+        int maxLen = ((payloadEnd - firstDot - 1) * 3) / 4 + 3;
+        if (buf.length < maxLen) {
+            buf = new byte[Math.max(maxLen, buf.length * 2)];
+            BUFFER.set(buf);
+        }
+
+        int len = decode(token, firstDot + 1, payloadEnd, buf);
+        if (len < 0) {
+            return null;
+        }
+        try {
+            return findIssuer(buf, len);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // ------------------------------------------------------------ Base64url
+
+    private static int decode(String s, int from, int to, byte[] out) {
+        // tolerate trailing padding, like the JDK decoder does for padded input
+        while (to > from && s.charAt(to - 1) == '=') {
+            to--;
+        }
+        int remainder = (to - from) % 4;
+        if (remainder == 1) {
+            return -1;
+        }
+        int o = 0;
+        int i = from;
+        int fullEnd = to - remainder;
+        while (i < fullEnd) {
+            int a = value(s.charAt(i++));
+            int b = value(s.charAt(i++));
+            int c = value(s.charAt(i++));
+            int d = value(s.charAt(i++));
+            if ((a | b | c | d) < 0) {
+                return -1;
+            }
+            int bits = (a << 18) | (b << 12) | (c << 6) | d;
+            out[o++] = (byte) (bits >> 16);
+            out[o++] = (byte) (bits >> 8);
+            out[o++] = (byte) bits;
+        }
+        if (remainder == 2) {
+            int a = value(s.charAt(i++));
+            int b = value(s.charAt(i));
+            if ((a | b) < 0) {
+                return -1;
+            }
+            out[o++] = (byte) ((a << 2) | (b >> 4));
+        } else if (remainder == 3) {
+            int a = value(s.charAt(i++));
+            int b = value(s.charAt(i++));
+            int c = value(s.charAt(i));
+            if ((a | b | c) < 0) {
+                return -1;
+            }
+            int bits = (a << 12) | (b << 6) | c;
+            out[o++] = (byte) (bits >> 10);
+            out[o++] = (byte) (bits >> 2);
+        }
+        return o;
+    }
+
+    private static int value(char c) {
+        return c < 128 ? BASE64URL[c] : -1;
+    }
+
+    // ------------------------------------------------------------ JSON scan
+
+    private static String findIssuer(byte[] b, int end) {
+        int p = skipWs(b, 0, end);
+        if (p >= end || b[p] != '{') {
+            return null;
+        }
+        p = skipWs(b, p + 1, end);
+        if (p < end && b[p] == '}') {
+            return null;
+        }
+        while (p < end) {
+            if (b[p] != '"') {
+                return null;
+            }
+            int keyStart = p + 1;
+            int keyEnd = stringEnd(b, keyStart, end);
+            if (keyEnd < 0) {
+                return null;
+            }
+            boolean isIss = isIssKey(b, keyStart, keyEnd);
+
+            p = skipWs(b, keyEnd + 1, end);
+            if (p >= end || b[p] != ':') {
+                return null;
+            }
+            p = skipWs(b, p + 1, end);
+            if (p >= end) {
+                return null;
+            }
+
+            if (isIss) {
+                if (b[p] != '"') {
+                    return null;
+                }
+                int valueEnd = stringEnd(b, p + 1, end);
+                return valueEnd < 0 ? null : readString(b, p + 1, valueEnd);
+            }
+
+            p = skipValue(b, p, end);
+            if (p < 0) {
+                return null;
+            }
+            p = skipWs(b, p, end);
+            if (p >= end) {
+                return null;
+            }
+            if (b[p] == '}') {
+                return null;
+            }
+            if (b[p] != ',') {
+                return null;
+            }
+            p = skipWs(b, p + 1, end);
+        }
+        return null;
+    }
+
+    private static boolean isIssKey(byte[] b, int start, int end) {
+        if (end - start == ISS.length) {
+            return b[start] == ISS[0] && b[start + 1] == ISS[1] && b[start + 2] == ISS[2];
+        }
+        // the key may spell "iss" with escape sequences
+        for (int i = start; i < end; i++) {
+            if (b[i] == '\\') {
+                return "iss".equals(readString(b, start, end));
+            }
+        }
+        return false;
+    }
+
+    private static int skipWs(byte[] b, int p, int end) {
+        while (p < end && (b[p] == ' ' || b[p] == '\t' || b[p] == '\n' || b[p] == '\r')) {
+            p++;
+        }
+        return p;
+    }
+
+    /** Index of the closing quote of a string whose content starts at {@code p}, or -1. */
+    private static int stringEnd(byte[] b, int p, int end) {
+        while (p < end) {
+            byte c = b[p];
+            if (c == '"') {
+                return p;
+            }
+            if (c == '\\') {
+                p += 2;
+            } else {
+                p++;
+            }
+        }
+        return -1;
+    }
+
+    /** Position right after the value starting at {@code p}, or -1. */
+    private static int skipValue(byte[] b, int p, int end) {
+        byte c = b[p];
+        if (c == '"') {
+            int close = stringEnd(b, p + 1, end);
+            return close < 0 ? -1 : close + 1;
+        }
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            while (p < end) {
+                c = b[p];
+                if (c == '"') {
+                    int close = stringEnd(b, p + 1, end);
+                    if (close < 0) {
+                        return -1;
+                    }
+                    p = close + 1;
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        return p + 1;
+                    }
+                }
+                p++;
+            }
+            return -1;
+        }
+        // number, true, false, null
+        int start = p;
+        while (p < end && b[p] != ',' && b[p] != '}' && b[p] != ']'
+                && b[p] != ' ' && b[p] != '\t' && b[p] != '\n' && b[p] != '\r') {
+            p++;
+        }
+        return p > start ? p : -1;
+    }
+
+    private static String readString(byte[] b, int start, int end) {
+        int firstEscape = -1;
+        for (int i = start; i < end; i++) {
+            if (b[i] == '\\') {
+                firstEscape = i;
+                break;
+            }
+        }
+        if (firstEscape < 0) {
+            return new String(b, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        StringBuilder sb = new StringBuilder(end - start);
+        sb.append(new String(b, start, firstEscape - start, StandardCharsets.UTF_8));
+        int i = firstEscape;
+        int runStart = i;
+        while (i < end) {
+            if (b[i] != '\\') {
+                i++;
+                continue;
+            }
+            if (i > runStart) {
+                sb.append(new String(b, runStart, i - runStart, StandardCharsets.UTF_8));
+            }
+            if (i + 1 >= end) {
+                throw new IllegalArgumentException("Dangling escape");
+            }
+            byte e = b[i + 1];
+            switch (e) {
+                case '"' -> sb.append('"');
+                case '\\' -> sb.append('\\');
+                case '/' -> sb.append('/');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (i + 6 > end) {
+                        throw new IllegalArgumentException("Short unicode escape");
+                    }
+                    sb.append((char) Integer.parseInt(new String(b, i + 2, 4, StandardCharsets.US_ASCII), 16));
+                    i += 4;
+                }
+                default -> throw new IllegalArgumentException("Bad escape");
+            }
+            i += 2;
+            runStart = i;
+        }
+        if (end > runStart) {
+            sb.append(new String(b, runStart, end - runStart, StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+}
@@ -4,13 +4,15 @@ import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.secufusion.iam.entity.Tenant;
 import com.secufusion.iam.repository.TenantRepository;
-import jakarta.servlet.ServletContext;
+import com.secufusion.iam.service.CallerTenantCache;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 
-import java.text.ParseException;
-
 @Service
 public class JwtUtl {
 
@@ -18,6 +20,9 @@ public class JwtUtl {
     @Autowired
     private TenantRepository tenantRepository;
 
+    @Autowired
+    private CallerTenantCache callerTenantCache;
+
     // Extract full token from Authorization header
     private String extractToken(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
@@ -37,48 +42,89 @@ public class JwtUtl {
         }
     }
 
-    // Get username (preferred_username)
-public String getUsername(HttpServletRequest request) {
-    String token = extractToken(request);
-    if (token == null) return null;
+    /**
+     * Caller identity for this request, built at most once and cached as a request attribute.
+     * Prefers the {@link Jwt} Spring Security already verified; falls back to a single parse of
+     * the bearer token when no JWT authentication is present.
+     */
+    public CallerContext getCallerContext(HttpServletRequest request) {
+        if (request == null) return null;
+
+        Object cached = request.getAttribute(CallerContext.REQUEST_ATTRIBUTE);
+        if (cached instanceof CallerContext ctx) {
+            return ctx;
+        }
 
-    try {
-        JWTClaimsSet claims = decodeToken(token);
-        return claims.getStringClaim("preferred_username");
-    } catch (Exception e) {
+        CallerContext ctx = fromSecurityContext();
+        if (ctx == null) {
+            String token = extractToken(request);
+            if (token == null) return null;
+            ctx = fromToken(token);
+        }
+        request.setAttribute(CallerContext.REQUEST_ATTRIBUTE, ctx);
+        return ctx;
+    }
+
+    private CallerContext fromSecurityContext() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth instanceof JwtAuthenticationToken jwtAuth) {
+            Jwt jwt = jwtAuth.getToken();
+            return new CallerContext(
+                    jwt.getSubject(),
+                    jwt.getClaimAsString("email"),
+                    jwt.getClaimAsString("preferred_username"));
+        }
         return null;
     }
-}
+
+    private CallerContext fromToken(String token) {
+        JWTClaimsSet claims = decodeToken(token);
+        try {
+            return new CallerContext(
+                    claims.getSubject(),
+                    claims.getStringClaim("email"),
+                    claims.getStringClaim("preferred_username"));
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid JWT Token: " + e.getMessage());
+        }
+    }
+
+    // Get username (preferred_username)
+    public String getUsername(HttpServletRequest request) {
+        try {
+            CallerContext ctx = getCallerContext(request);
+            return ctx != null ? ctx.getUsername() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
 
     // Get email
     public String getEmail(HttpServletRequest request) {
-        String token = extractToken(request);
-        if (token == null) return null;
-
         try {
-            JWTClaimsSet claims = decodeToken(token);
-            return claims.getStringClaim("email");
+            CallerContext ctx = getCallerContext(request);
+            return ctx != null ? ctx.getEmail() : null;
         } catch (Exception e) {
             return null;
         }
     }
 
     public Tenant getTenantFromEmail(HttpServletRequest request) {
-        String token = extractToken(request);
-        if (token == null) return null;
-
         try {
-            JWTClaimsSet claims = decodeToken(token);
-            String email = claims.getStringClaim("email");
-            if (email == null) return null;
+            CallerContext ctx = getCallerContext(request);
+            if (ctx == null) return null;
 
             if (tenantRepository == null) return null;
 
-            try {
-                return tenantRepository.findByEmail(email).orElse(null);
-            } catch (Exception e) {
-                return null;
-            }
+            return ctx.getTenant(this::findTenantByEmail);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Tenant findTenantByEmail(String email) {
+        try {
+            return callerTenantCache.resolve(email);
         } catch (Exception e) {
             return null;
         }
@@ -86,10 +132,7 @@ public String getUsername(HttpServletRequest request) {
 
     // Optional: Get userId (sub)
     public String getUserId(HttpServletRequest request) {
-        String token = extractToken(request);
-        if (token == null) return null;
-
-        JWTClaimsSet claims = decodeToken(token);
-        return claims.getSubject(); // "sub"
+        CallerContext ctx = getCallerContext(request);
+        return ctx != null ? ctx.getSubject() : null; // "sub"
     }
 }
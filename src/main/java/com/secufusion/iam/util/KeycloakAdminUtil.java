@@ -1,6 +1,12 @@
 package com.secufusion.iam.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.secufusion.iam.exception.KeycloakOperationException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +20,16 @@ import org.springframework.stereotype.Component;
 import jakarta.mail.*;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,8 +37,41 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class KeycloakAdminUtil {
 
+    private static final String REALM_MANAGEMENT_CLIENT = "realm-management";
+    private static final String REALM_ADMIN_ROLE = "realm-admin";
+
     private final Keycloak keycloak;
 
+    /** Lower-cased names of realms known to exist in Keycloak. */
+    private final Set<String> knownRealms = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService realmRefresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "kc-realm-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Per-realm client UUIDs and role representations, dropped when the realm is deleted and
+     * after {@code keycloak.admin.metadata-cache.ttl}, so clients recreated outside this
+     * service are picked up again.
+     */
+    private Cache<String, RealmMetadata> realmMetadata;
+
+    /** Runs lookups that callers overlap with their own DB work; falls back to the caller when busy. */
+    private final ExecutorService lookupExecutor = new ThreadPoolExecutor(0, 8, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), r -> {
+                Thread t = new Thread(r, "kc-lookup");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+    @Value("${keycloak.admin.realm-cache.refresh-interval:PT10M}")
+    private Duration realmRefreshInterval;
+
+    @Value("${keycloak.admin.metadata-cache.ttl:PT10M}")
+    private Duration metadataTtl;
+
     // ---------------- SMTP properties (Option A: @Value inside util) ----------------
     @Value("${mail.smtp.host}")
     private String smtpHost;
@@ -49,24 +97,54 @@ public class KeycloakAdminUtil {
     // ============================================================
     // REALM OPERATIONS
     // ============================================================
+    /**
+     * Checks a realm by name with a single lookup instead of listing every realm.
+     * Names seen in the known-realm set (lower-cased) answer without any HTTP call; the set is
+     * maintained by {@link #createRealm} / {@link #deleteRealm} and re-synced in the background
+     * every {@code keycloak.admin.realm-cache.refresh-interval}.
+     */
     public boolean realmExists(String realm) {
+        if (realm == null) {
+            return false;
+        }
+        if (knownRealms.contains(realm.toLowerCase(Locale.ROOT))) {
+            log.debug("Realm exists check (cached): realm={}, exists=true", realm);
+            return true;
+        }
         try {
-            boolean exists = keycloak.realms().findAll().stream()
-                    .anyMatch(r -> r.getRealm().equalsIgnoreCase(realm));
-            log.debug("Realm exists check: realm={}, exists={}", realm, exists);
-            return exists;
+            keycloak.realm(realm).toRepresentation();
+            knownRealms.add(realm.toLowerCase(Locale.ROOT));
+            log.debug("Realm exists check: realm={}, exists=true", realm);
+            return true;
+        } catch (NotFoundException e) {
+            log.debug("Realm exists check: realm={}, exists=false", realm);
+            return false;
         } catch (Exception e) {
             log.error("Error checking realm existence. realm={}, error={}", realm, e.getMessage(), e);
             return false;
         }
     }
 
+    /**
+     * {@link #realmExists} on a background thread, for callers that overlap it with DB checks.
+     */
+    public CompletableFuture<Boolean> realmExistsAsync(String realm) {
+        return CompletableFuture.supplyAsync(() -> realmExists(realm), lookupExecutor);
+    }
+
     public void createRealm(RealmRepresentation realmRepresentation) {
         String realmName = realmRepresentation.getRealm();
         log.info("Creating realm '{}'", realmName);
         try {
             keycloak.realms().create(realmRepresentation);
+            knownRealms.add(realmName.toLowerCase(Locale.ROOT));
             log.info("Realm created: {}", realmName);
+        } catch (WebApplicationException e) {
+            if (e.getResponse() != null && e.getResponse().getStatus() == 409) {
+                knownRealms.add(realmName.toLowerCase(Locale.ROOT));
+            }
+            log.error("Failed to create realm {}: {}", realmName, e.getMessage(), e);
+            throw e;
         } catch (Exception e) {
             log.error("Failed to create realm {}: {}", realmName, e.getMessage(), e);
             throw e;
@@ -77,21 +155,61 @@ public class KeycloakAdminUtil {
         log.info("Deleting realm: {}", realmName);
         try {
             keycloak.realm(realmName).remove();
+            forgetRealm(realmName);
             log.info("Realm deleted: {}", realmName);
+        } catch (NotFoundException e) {
+            forgetRealm(realmName);
+            log.error("Failed to delete realm {}: {}", realmName, e.getMessage(), e);
+            throw e;
         } catch (Exception e) {
             log.error("Failed to delete realm {}: {}", realmName, e.getMessage(), e);
             throw e;
         }
     }
 
+    private void forgetRealm(String realmName) {
+        knownRealms.remove(realmName.toLowerCase(Locale.ROOT));
+        realmMetadata.invalidate(realmName);
+    }
+
+    @PostConstruct
+    void init() {
+        realmMetadata = Caffeine.newBuilder().expireAfterWrite(metadataTtl).build();
+        long intervalMs = realmRefreshInterval.toMillis();
+        realmRefresher.scheduleWithFixedDelay(this::refreshKnownRealms, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopRealmRefresh() {
+        realmRefresher.shutdownNow();
+        lookupExecutor.shutdownNow();
+    }
+
+    /**
+     * Re-syncs the known-realm set with Keycloak, picking up realms created or removed
+     * outside this service. Runs off the request path.
+     */
+    void refreshKnownRealms() {
+        try {
+            Set<String> names = keycloak.realms().findAll().stream()
+                    .map(RealmRepresentation::getRealm)
+                    .filter(Objects::nonNull)
+                    .map(n -> n.toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+            knownRealms.retainAll(names);
+            knownRealms.addAll(names);
+            log.debug("Known realm set refreshed. realms={}", names.size());
+        } catch (Exception e) {
+            log.warn("Failed to refresh known realm set, keeping previous. error={}", e.getMessage());
+        }
+    }
+
     // ============================================================
     // CLIENT OPERATIONS
     // ============================================================
     public boolean clientExists(String realm, String clientId) {
         try {
-            boolean exists = keycloak.realm(realm).clients().findAll()
-                    .stream()
-                    .anyMatch(c -> c.getClientId().equalsIgnoreCase(clientId));
+            boolean exists = findClientUuid(realm, clientId) != null;
             log.debug("Client exists check: realm={}, clientId={}, exists={}", realm, clientId, exists);
             return exists;
         } catch (Exception e) {
@@ -100,6 +218,29 @@ public class KeycloakAdminUtil {
         }
     }
 
+    /**
+     * Internal UUID of a client, looked up with {@code findByClientId} and cached per realm.
+     * Returns {@code null} if the client does not exist (absence is not cached).
+     */
+    public String findClientUuid(String realm, String clientId) {
+        RealmMetadata meta = metadata(realm);
+        String cached = meta.clientUuids().get(clientId);
+        if (cached != null) {
+            return cached;
+        }
+        List<ClientRepresentation> found = keycloak.realm(realm).clients().findByClientId(clientId);
+        if (found == null || found.isEmpty()) {
+            return null;
+        }
+        String uuid = found.get(0).getId();
+        meta.clientUuids().put(clientId, uuid);
+        return uuid;
+    }
+
+    private RealmMetadata metadata(String realm) {
+        return realmMetadata.get(realm, r -> new RealmMetadata(new ConcurrentHashMap<>(), new ConcurrentHashMap<>()));
+    }
+
     public void createClient(String realm, ClientRepresentation clientRep) {
         log.info("Creating Keycloak client: realm={}, clientId={}", realm, clientRep.getClientId());
         try {
@@ -112,6 +253,9 @@ public class KeycloakAdminUtil {
                 log.error("Failed client creation. realm={}, clientId={}, response={}", realm, clientRep.getClientId(), body);
                 throw new RuntimeException("Client creation failed: " + body);
             }
+            if (status == 201) {
+                metadata(realm).clientUuids().put(clientRep.getClientId(), CreatedResponseUtil.getCreatedId(resp));
+            }
             resp.close();
             log.info("Client created in realm={} clientId={}", realm, clientRep.getClientId());
         } catch (Exception e) {
@@ -124,13 +268,25 @@ public class KeycloakAdminUtil {
     // USER OPERATIONS
     // ============================================================
     public String createUser(String realm, String username, String email, String firstName, String lastName, boolean emailVerified) {
+        return createUser(realm, username, email, firstName, lastName, emailVerified, true);
+    }
+
+    /**
+     * @param checkExisting search Keycloak for a user with the same username/email first;
+     *                      callers that already did so pass {@code false} to save two round trips
+     *                      (a 409 from Keycloak still returns {@code null})
+     */
+    public String createUser(String realm, String username, String email, String firstName, String lastName,
+                             boolean emailVerified, boolean checkExisting) {
         log.info("Creating Keycloak user in realm='{}' username='{}'", realm, username);
 
-        findUsersByUsernameOrEmail(realm, username, email).forEach(u -> {
-            log.warn("User with same username/email already exists in realm='{}': userId='{}', username='{}', email='{}'",
-                    realm, u.getId(), u.getUsername(), u.getEmail());
-            throw new KeycloakOperationException("USER_ALREADY_EXISTS", 409,"User with same username/email already exists in realm");
-        });
+        if (checkExisting) {
+            findUsersByUsernameOrEmail(realm, username, email).forEach(u -> {
+                log.warn("User with same username/email already exists in realm='{}': userId='{}', username='{}', email='{}'",
+                        realm, u.getId(), u.getUsername(), u.getEmail());
+                throw new KeycloakOperationException("USER_ALREADY_EXISTS", 409,"User with same username/email already exists in realm");
+            });
+        }
         UserRepresentation user = new UserRepresentation();
         user.setUsername(username);
         user.setEmail(email);
@@ -243,10 +399,14 @@ public class KeycloakAdminUtil {
     public void assignRealmAdminRole(String realm, String userId) {
         log.info("Assigning realm-admin role to user {} in realm {}", userId, realm);
         try {
-            RealmResource rr = keycloak.realm(realm);
-            ClientRepresentation realmMgmt = rr.clients().findByClientId("realm-management").get(0);
-            RoleRepresentation role = rr.clients().get(realmMgmt.getId()).roles().get("realm-admin").toRepresentation();
-            rr.users().get(userId).roles().clientLevel(realmMgmt.getId()).add(List.of(role));
+            try {
+                addRealmAdminRole(realm, userId);
+            } catch (NotFoundException e) {
+                // cached client UUID or role may be stale; reload once
+                log.info("Stale realm metadata, retrying realm-admin assignment. realm={}", realm);
+                realmMetadata.invalidate(realm);
+                addRealmAdminRole(realm, userId);
+            }
             log.info("Assigned realm-admin to user {}", userId);
         } catch (Exception e) {
             log.error("Failed to assign realm-admin role to user {}: {}", userId, e.getMessage(), e);
@@ -254,6 +414,18 @@ public class KeycloakAdminUtil {
         }
     }
 
+    private void addRealmAdminRole(String realm, String userId) {
+        RealmResource rr = keycloak.realm(realm);
+        String realmMgmtId = findClientUuid(realm, REALM_MANAGEMENT_CLIENT);
+        if (realmMgmtId == null) {
+            throw new IllegalStateException("realm-management client not found in realm " + realm);
+        }
+        RoleRepresentation role = metadata(realm).clientRoles().computeIfAbsent(
+                realmMgmtId + "/" + REALM_ADMIN_ROLE,
+                k -> rr.clients().get(realmMgmtId).roles().get(REALM_ADMIN_ROLE).toRepresentation());
+        rr.users().get(userId).roles().clientLevel(realmMgmtId).add(List.of(role));
+    }
+
     // ============================================================
     // FIND / SEARCH HELPERS
     // ============================================================
@@ -323,4 +495,7 @@ public class KeycloakAdminUtil {
         Transport.send(msg);
         log.info("Welcome email sent to {}", to);
     }
+
+    private record RealmMetadata(Map<String, String> clientUuids, Map<String, RoleRepresentation> clientRoles) {
+    }
 }
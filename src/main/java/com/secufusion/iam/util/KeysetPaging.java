@@ -0,0 +1,102 @@
+package com.secufusion.iam.util;
+
+import com.secufusion.iam.dto.PageResponse;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared plumbing for keyset-paginated list endpoints.
+ * <p>
+ * Lists are ordered by primary key and each page is fetched with {@code key > :after ... limit n+1},
+ * so cost per page does not depend on how deep the client has paged. The continuation token is
+ * the last key of the page, versioned and Base64url-encoded; clients must treat it as opaque.
+ */
+@Component
+public class KeysetPaging {
+
+    private static final String CURSOR_PREFIX = "k1:";
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public KeysetPaging(@Value("${iam.pagination.default-size:50}") int defaultSize,
+                        @Value("${iam.pagination.max-size:500}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The page size to use, clamped to {@code iam.pagination.max-size}.
+     */
+    public int size(Integer requested) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        if (requested < 1) {
+            throw new KeycloakOperationException("INVALID_PAGING", 1032, "size must be positive.");
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    /**
+     * Rows to ask the repository for: one extra to learn whether another page exists.
+     */
+    public Limit fetchLimit(int size) {
+        return Limit.of(size + 1);
+    }
+
+    /**
+     * The key to continue after, or {@code null} for the first page.
+     */
+    public String after(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX) && decoded.length() > CURSOR_PREFIX.length()) {
+                return decoded.substring(CURSOR_PREFIX.length());
+            }
+        } catch (IllegalArgumentException ignored) {
+            // fall through
+        }
+        throw new KeycloakOperationException("INVALID_CURSOR", 1033, "Invalid or expired page cursor.");
+    }
+
+    /**
+     * {@link #after} for numeric keys.
+     */
+    public Long afterLong(String cursor) {
+        String key = after(cursor);
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new KeycloakOperationException("INVALID_CURSOR", 1033, "Invalid or expired page cursor.");
+        }
+    }
+
+    /**
+     * Builds the page from up to {@code size + 1} rows fetched in key order.
+     */
+    public <E, T> PageResponse<T> page(List<E> rows, int size, Function<E, ?> key, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String next = hasMore ? encode(String.valueOf(key.apply(pageRows.get(size - 1)))) : null;
+        return new PageResponse<>(pageRows.stream().map(mapper).toList(), next, hasMore);
+    }
+
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + key).getBytes(StandardCharsets.UTF_8));
+    }
+}
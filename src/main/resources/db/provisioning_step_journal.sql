@@ -0,0 +1,18 @@
+-- Provisioning step journal (see ProvisioningStepJournal). Idempotent; applied at startup
+-- through spring.sql.init.schema-locations.
+CREATE TABLE IF NOT EXISTS provisioning_step_journal (
+    pk_journal_id BIGSERIAL PRIMARY KEY,
+    tenant_id     VARCHAR(255)  NOT NULL,
+    tenant_name   VARCHAR(255),
+    step          VARCHAR(255)  NOT NULL,
+    attempt       INTEGER       NOT NULL,
+    outcome       VARCHAR(255)  NOT NULL,
+    started_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    finished_at   TIMESTAMP(6) WITH TIME ZONE,
+    duration_ms   BIGINT,
+    error_code    VARCHAR(255),
+    error_message VARCHAR(1000)
+);
+CREATE INDEX IF NOT EXISTS idx_psj_tenant ON provisioning_step_journal (tenant_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_psj_tenant_step_attempt ON provisioning_step_journal (tenant_id, step, attempt);
+CREATE INDEX IF NOT EXISTS idx_psj_started ON provisioning_step_journal (started_at);
@@ -0,0 +1,121 @@
+package com.secufusion.iam.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secufusion.iam.util.JwtIssuerExtractor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming {@link JwtIssuerExtractor} with the split + readTree approach
+ * the resolver used before, on Keycloak-shaped access tokens of 1, 2 and 4 KB.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.secufusion.iam.benchmark.IssuerExtractionBenchmark}
+ * or from the IDE via {@link #main(String[])}. Add {@code -prof gc} to see allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IssuerExtractionBenchmark {
+
+    @Param({"1024", "2048", "4096"})
+    public int tokenSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = keycloakToken(tokenSize);
+    }
+
+    @Benchmark
+    public String streaming() {
+        return JwtIssuerExtractor.extractIssuer(token);
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacyExtractIssuer(token);
+    }
+
+    /** The previous DbJwtAuthenticationManagerResolver.extractIssuer, kept verbatim as the baseline. */
+    String legacyExtractIssuer(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length < 2) return null;
+
+            String payload = parts[1];
+            // Add padding if needed
+            while (payload.length() % 4 != 0) {
+                payload += "=";
+            }
+
+            String decoded = new String(
+                    Base64.getUrlDecoder().decode(payload),
+                    StandardCharsets.UTF_8
+            );
+
+            JsonNode node = objectMapper.readTree(decoded);
+            return node.has("iss") ? node.get("iss").asText() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds a token laid out like a Keycloak access token, padding the role lists until the
+     * encoded token reaches roughly {@code targetSize} characters.
+     */
+    static String keycloakToken(int targetSize) {
+        Base64.Encoder enc = Base64.getUrlEncoder().withoutPadding();
+        String header = "{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"x2Q1b6oWcJ0m8dQhC3VnT9yZb4sPqL7aR1eK0uJ5fGw\"}";
+
+        StringBuilder roles = new StringBuilder();
+        int i = 0;
+        String payload;
+        do {
+            if (i > 0) roles.append(',');
+            roles.append("\"tenant-role-").append(i++).append('"');
+            payload = "{\"exp\":1760700000,\"iat\":1760699700,\"auth_time\":1760699690,"
+                    + "\"jti\":\"onrtac:5b1f1b4e-6f1a-4c55-9a43-0c2d5f0e7b11\","
+                    + "\"iss\":\"https://auth.motivitylabs.net/realms/acme\","
+                    + "\"aud\":[\"realm-management\",\"account\"],"
+                    + "\"sub\":\"0f6b6d5e-2b7c-4b8e-9d6f-6b1f0c9e2a11\",\"typ\":\"Bearer\",\"azp\":\"acme\","
+                    + "\"sid\":\"7a4c2d1e-9f3b-4a6c-8e2d-1b0f5c7d9e33\",\"acr\":\"1\","
+                    + "\"allowed-origins\":[\"*\"],"
+                    + "\"realm_access\":{\"roles\":[\"offline_access\",\"uma_authorization\",\"default-roles-acme\"]},"
+                    + "\"resource_access\":{\"realm-management\":{\"roles\":[\"realm-admin\",\"manage-users\"," + roles + "]},"
+                    + "\"account\":{\"roles\":[\"manage-account\",\"view-profile\"]}},"
+                    + "\"scope\":\"openid profile email\",\"email_verified\":true,\"name\":\"Jane Doe\","
+                    + "\"preferred_username\":\"janed4\",\"given_name\":\"Jane\",\"family_name\":\"Doe\","
+                    + "\"email\":\"jane.doe@acme.example\"}";
+        } while ((header.length() + payload.length()) * 4 / 3 + 344 < targetSize);
+
+        byte[] sig = new byte[256];
+        new Random(42).nextBytes(sig);
+        return enc.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + enc.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "."
+                + enc.encodeToString(sig);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(IssuerExtractionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -107,7 +107,7 @@ class DefaultTenantInitializerUnitTest {
         initializer.initialize();
 
         // verify no tenant creation
-        verify(tenantService, never()).createTenant(any(), any(CreateTenantRequest.class));
+        verify(tenantService, never()).createTenantUnder(any(), any(CreateTenantRequest.class));
 
         // verify role created or fetched
         verify(roleService, times(1)).createOrGetDefaultRole(eq("TID-1"), contains("_Admin"), anyString(), eq(defaultUser.getPkUserId()));
@@ -122,8 +122,8 @@ class DefaultTenantInitializerUnitTest {
         // tenantRepository returns empty first
         when(tenantRepository.findByTenantName(defaultTenantName)).thenReturn(Optional.empty());
 
-        // simulate tenantService.createTenant creating tenant (we don't use HttpServletRequest here; initializer passes null)
-        // After createTenant, the tenantRepository should return the created tenant.
+        // simulate tenantService.createTenantUnder creating tenant (we don't use HttpServletRequest here; initializer passes null)
+        // After createTenantUnder, the tenantRepository should return the created tenant.
         Tenant created = new Tenant();
         created.setTenantID("CREATED-1");
         created.setTenantName(defaultTenantName);
@@ -140,7 +140,7 @@ class DefaultTenantInitializerUnitTest {
         doAnswer(invocation -> {
             // optionally assert request content here
             return null; // tenantService.createTenant returns void or TenantResponse in real service; initializer ignores return
-        }).when(tenantService).createTenant(isNull(), any(CreateTenantRequest.class));
+        }).when(tenantService).createTenantUnder(isNull(), any(CreateTenantRequest.class));
 
         when(tenantRepository.findByTenantName(defaultTenantName))
                 .thenReturn(Optional.empty())   // first call in initializer
@@ -167,8 +167,8 @@ class DefaultTenantInitializerUnitTest {
         // call initializer
         initializer.initialize();
 
-        // verify createTenant called once
-        verify(tenantService, times(1)).createTenant(isNull(), any(CreateTenantRequest.class));
+        // verify createTenantUnder called once
+        verify(tenantService, times(1)).createTenantUnder(isNull(), any(CreateTenantRequest.class));
 
         // verify role and group creation and assignments
         verify(roleService, times(1))
@@ -185,8 +185,8 @@ class DefaultTenantInitializerUnitTest {
     void whenTenantCreationFails_initializerShouldCatchException_andNotThrow() {
         when(tenantRepository.findByTenantName(defaultTenantName)).thenReturn(Optional.empty());
 
-        // make tenantService.createTenant throw
-        doThrow(new RuntimeException("creation failed")).when(tenantService).createTenant(isNull(), any(CreateTenantRequest.class));
+        // make tenantService.createTenantUnder throw
+        doThrow(new RuntimeException("creation failed")).when(tenantService).createTenantUnder(isNull(), any(CreateTenantRequest.class));
 
         // subsequent repository call (after attempted create) also returns empty
         when(tenantRepository.findByTenantName(defaultTenantName)).thenReturn(Optional.empty());
@@ -194,8 +194,8 @@ class DefaultTenantInitializerUnitTest {
         // just call initialize - should not throw
         initializer.initialize();
 
-        // verify createTenant called
-        verify(tenantService, times(1)).createTenant(isNull(), any(CreateTenantRequest.class));
+        // verify createTenantUnder called
+        verify(tenantService, times(1)).createTenantUnder(isNull(), any(CreateTenantRequest.class));
 
         // since creation failed and tenant not found, no role or group interactions expected
         verifyNoInteractions(roleService);
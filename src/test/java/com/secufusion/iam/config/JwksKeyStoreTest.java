@@ -0,0 +1,71 @@
+package com.secufusion.iam.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JwksKeyStoreTest {
+
+    private static final String ISSUER = "https://kc.example.com/realms/acme";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private JwksKeyStore keyStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/certs", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        keyStore = new JwksKeyStore(mock(ApplicationEventPublisher.class), meterRegistry,
+                Duration.ofMinutes(5), Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyStore.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void issuerWithoutKeysFailsFastAfterAFailedFetch() throws Exception {
+        keyStore.register(ISSUER, "http://127.0.0.1:" + server.getAddress().getPort() + "/certs");
+        awaitFailedFetches(1);
+
+        JWKSource<SecurityContext> source = keyStore.sourceFor(ISSUER);
+        JWKSelector selector = new JWKSelector(new JWKMatcher.Builder().keyID("k1").build());
+        for (int i = 0; i < 5; i++) {
+            assertThrows(KeySourceException.class, () -> source.get(selector, null));
+        }
+
+        assertEquals(1, requests.get());
+    }
+
+    private void awaitFailedFetches(int n) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("iam.jwks.fetches").tag("result", "failure").counter().count() < n) {
+            assertTrue(System.nanoTime() < deadline, "background prefetch did not fail in time");
+            Thread.sleep(10);
+        }
+    }
+}
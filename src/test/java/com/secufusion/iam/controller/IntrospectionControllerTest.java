@@ -0,0 +1,108 @@
+package com.secufusion.iam.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secufusion.iam.config.DbJwtAuthenticationManagerResolver;
+import com.secufusion.iam.config.SecurityConfig;
+import com.secufusion.iam.dto.BatchIntrospectionRequest;
+import com.secufusion.iam.dto.IntrospectionResponse;
+import com.secufusion.iam.service.InitializerExecutor;   // <-- mocked, prevents startup error
+import com.secufusion.iam.service.TokenIntrospectionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = IntrospectionController.class)
+@Import(SecurityConfig.class)
+public class IntrospectionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TokenIntrospectionService introspectionService;
+
+    @MockitoBean
+    private DbJwtAuthenticationManagerResolver resolver;
+
+    @MockitoBean
+    private InitializerExecutor initializerExecutor;
+
+    @Test
+    void testIntrospectRequiresAuthentication() throws Exception {
+        mockMvc.perform(post("/oauth2/introspect")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", "abc"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(introspectionService);
+    }
+
+    @Test
+    void testIntrospectRequiresIntrospectionAuthority() throws Exception {
+        mockMvc.perform(post("/oauth2/introspect")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("SCOPE_profile")))
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", "abc"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(introspectionService);
+    }
+
+    @Test
+    void testIntrospectWithScope() throws Exception {
+        IntrospectionResponse active = new IntrospectionResponse();
+        active.setActive(true);
+        active.setSub("U1");
+        active.setTenantId("T1");
+        when(introspectionService.introspect("abc")).thenReturn(active);
+
+        mockMvc.perform(post("/oauth2/introspect")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("SCOPE_introspect")))
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.sub").value("U1"))
+                .andExpect(jsonPath("$.tenant_id").value("T1"));
+    }
+
+    @Test
+    void testIntrospectBatchWithClientRole() throws Exception {
+        when(introspectionService.introspectAll(List.of("a", "b")))
+                .thenReturn(List.of(IntrospectionResponse.inactive(), IntrospectionResponse.inactive()));
+
+        BatchIntrospectionRequest body = new BatchIntrospectionRequest();
+        body.setTokens(List.of("a", "b"));
+
+        mockMvc.perform(post("/oauth2/introspect/batch")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_introspection")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].active").value(false));
+    }
+
+    @Test
+    void testInactiveResponsesAreNotShared() {
+        IntrospectionResponse first = IntrospectionResponse.inactive();
+        first.setActive(true);
+
+        assertFalse(IntrospectionResponse.inactive().isActive());
+    }
+}
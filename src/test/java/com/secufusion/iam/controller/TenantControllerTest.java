@@ -1,9 +1,16 @@
 package com.secufusion.iam.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secufusion.iam.dto.AvailabilityResponse;
 import com.secufusion.iam.dto.CreateTenantRequest;
+import com.secufusion.iam.dto.PageResponse;
+import com.secufusion.iam.dto.ProvisioningJobStatus;
+import com.secufusion.iam.dto.TenantDeletionJobStatus;
 import com.secufusion.iam.dto.TenantResponse;
 import com.secufusion.iam.entity.TenantType;
+import com.secufusion.iam.service.TenantBulkOnboardingService;
+import com.secufusion.iam.service.TenantDeletionService;
+import com.secufusion.iam.service.TenantProvisioningExecutor;
 import com.secufusion.iam.service.TenantService;
 import com.secufusion.iam.service.InitializerExecutor;   // <-- mocked, prevents startup error
 
@@ -21,6 +28,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.Instant;
 import java.util.List;
@@ -42,6 +50,15 @@ public class TenantControllerTest {
     @MockitoBean
     private TenantService tenantService;
 
+    @MockitoBean
+    private TenantProvisioningExecutor provisioningExecutor;
+
+    @MockitoBean
+    private TenantBulkOnboardingService bulkOnboardingService;
+
+    @MockitoBean
+    private TenantDeletionService deletionService;
+
     // IMPORTANT FIX: prevents Spring from loading your App class
     @MockitoBean
     private InitializerExecutor initializerExecutor;
@@ -74,6 +91,42 @@ public class TenantControllerTest {
                 .andExpect(jsonPath("$.tenantID").value("T1"));
     }
 
+    @Test
+    void testCreateTenantAsync() throws Exception {
+        ProvisioningJobStatus job = new ProvisioningJobStatus();
+        job.setJobId("J1");
+        job.setTenantId("T1");
+        job.setState("QUEUED");
+
+        when(provisioningExecutor.submit(ArgumentMatchers.any(HttpServletRequest.class), ArgumentMatchers.any(CreateTenantRequest.class)))
+                .thenReturn(job);
+
+        mockMvc.perform(post("/tenants?async=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/tenants/jobs/J1"))
+                .andExpect(jsonPath("$.jobId").value("J1"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+
+        verify(tenantService, never()).createTenant(any(), any());
+    }
+
+    @Test
+    void testGetProvisioningJob() throws Exception {
+        ProvisioningJobStatus job = new ProvisioningJobStatus();
+        job.setJobId("J1");
+        job.setState("RUNNING");
+        job.setCurrentStep("CLIENT");
+
+        when(provisioningExecutor.getJob("J1")).thenReturn(job);
+
+        mockMvc.perform(get("/tenants/jobs/J1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.currentStep").value("CLIENT"));
+    }
+
     @Test
     void testGetTenant() throws Exception {
         when(tenantService.getTenantIfParent(any(), eq("T1")))
@@ -86,7 +139,7 @@ public class TenantControllerTest {
 
     @Test
     void testGetAll() throws Exception {
-        when(tenantService.getTenantHierarchy(any()))
+        when(tenantService.getTenantHierarchy(any(), isNull(), isNull(), eq(0)))
                 .thenReturn(List.of(resp));
 
         mockMvc.perform(get("/tenants"))
@@ -94,6 +147,65 @@ public class TenantControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void testGetAllWithDepthAndPaging() throws Exception {
+        when(tenantService.getTenantHierarchy(any(), eq(2), eq(50), eq(100)))
+                .thenReturn(List.of(resp));
+
+        mockMvc.perform(get("/tenants").param("maxDepth", "2").param("limit", "50").param("offset", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void testGetPage() throws Exception {
+        when(tenantService.getTenantsPage(any(), isNull(), eq("c1"), eq(20)))
+                .thenReturn(new PageResponse<>(List.of(resp), "c2", true));
+
+        mockMvc.perform(get("/tenants/page").param("cursor", "c1").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value("c2"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void testBulkCreateNdjson() throws Exception {
+        String body = "{\"tenantName\":\"acme\"}\n";
+        when(bulkOnboardingService.onboard(any(), any(), eq(false)))
+                .thenReturn(out -> out.write("{\"row\":1,\"outcome\":\"SUCCEEDED\"}\n".getBytes()));
+
+        MvcResult result = mockMvc.perform(post("/tenants/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"row\":1,\"outcome\":\"SUCCEEDED\"}\n"));
+        verify(bulkOnboardingService).onboard(any(), any(), eq(false));
+    }
+
+    @Test
+    void testBulkCreateCsv() throws Exception {
+        String body = "tenantName,domain\nacme,acme.com\n";
+        when(bulkOnboardingService.onboard(any(), any(), eq(true)))
+                .thenReturn(out -> out.write("{\"row\":2,\"outcome\":\"REJECTED\"}\n".getBytes()));
+
+        MvcResult result = mockMvc.perform(post("/tenants/bulk")
+                        .contentType("text/csv; charset=UTF-8")
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"row\":2,\"outcome\":\"REJECTED\"}\n"));
+        verify(bulkOnboardingService).onboard(any(), any(), eq(true));
+    }
+
     @Test
     void testUpdateTenant() throws Exception {
         when(tenantService.updateTenant(any(), eq("T1"), any()))
@@ -108,10 +220,31 @@ public class TenantControllerTest {
 
     @Test
     void testDeleteTenant() throws Exception {
-        Mockito.doNothing().when(tenantService).deleteTenant("T1");
+        TenantDeletionJobStatus job = new TenantDeletionJobStatus();
+        job.setJobId("J1");
+        job.setState("SUCCEEDED");
+        when(deletionService.deleteNow(any(), eq("T1"))).thenReturn(job);
 
         mockMvc.perform(delete("/tenants/T1"))
                 .andExpect(status().isNoContent());
+        verify(deletionService).deleteNow(any(), eq("T1"));
+        verify(deletionService, never()).submit(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testDeleteTenantAsyncCascade() throws Exception {
+        TenantDeletionJobStatus job = new TenantDeletionJobStatus();
+        job.setJobId("J1");
+        job.setRootTenantId("T1");
+        job.setCascade(true);
+        job.setState("QUEUED");
+        when(deletionService.submit(any(), eq("T1"), eq(true))).thenReturn(job);
+
+        mockMvc.perform(delete("/tenants/T1").param("async", "true").param("cascade", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/tenants/deletions/J1"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+        verify(deletionService, never()).deleteNow(any(), any());
     }
 
     @Test
@@ -177,6 +310,32 @@ public class TenantControllerTest {
                 .andExpect(content().string("ok"));
     }
 
+    @Test
+    void testCheckAvailability() throws Exception {
+        AvailabilityResponse availability = new AvailabilityResponse();
+        availability.add("tenantName", "tenant1", true);
+        availability.add("domainName", "acme.motivitylabs.net", false);
+
+        when(tenantService.checkAvailability("tenant1", "acme", null, null))
+                .thenReturn(availability);
+
+        mockMvc.perform(get("/tenants/availability?tenantName=tenant1&domainName=acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.allAvailable").value(false))
+                .andExpect(jsonPath("$.fields.tenantName.available").value(true))
+                .andExpect(jsonPath("$.fields.domainName.value").value("acme.motivitylabs.net"))
+                .andExpect(jsonPath("$.fields.domainName.available").value(false));
+    }
+
+    @Test
+    void testCheckAvailabilityMissingParams() throws Exception {
+        when(tenantService.checkAvailability(null, null, null, null))
+                .thenReturn(new AvailabilityResponse());
+
+        mockMvc.perform(get("/tenants/availability"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testCheckMissingParams() throws Exception {
         mockMvc.perform(get("/tenants/check"))
@@ -0,0 +1,91 @@
+package com.secufusion.iam.repository;
+
+import com.secufusion.iam.entity.ProvisioningStepJournal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the native latency query against a real Postgres ({@code percentile_cont} and
+ * aggregate {@code FILTER} are Postgres syntax). Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ProvisioningStepJournalRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProvisioningStepJournalRepository repository;
+
+    @Test
+    void latenciesArePerStepOverFinishedAttemptsInWindow() {
+        Instant now = Instant.now();
+        for (int i = 1; i <= 100; i++) {
+            repository.save(entry("T" + i, "REALM", 1, i == 100 ? "FAILED" : "SUCCEEDED", now, (long) i * 10));
+        }
+        repository.save(entry("T1", "CLIENT", 1, "SUCCEEDED", now, 40L));
+        repository.save(entry("T2", "CLIENT", 1, "RUNNING", now, null));
+        repository.save(entry("T3", "CLIENT", 1, "SUCCEEDED", now.minus(Duration.ofDays(2)), 9000L));
+        repository.flush();
+
+        List<ProvisioningStepJournalRepository.StepLatency> stats =
+                repository.findStepLatencies(now.minus(Duration.ofHours(1)));
+
+        assertEquals(2, stats.size());
+        ProvisioningStepJournalRepository.StepLatency client = stats.get(0);
+        assertEquals("CLIENT", client.getStep());
+        assertEquals(1L, client.getCount());
+        assertEquals(40L, client.getMaxMs());
+
+        ProvisioningStepJournalRepository.StepLatency realm = stats.get(1);
+        assertEquals("REALM", realm.getStep());
+        assertEquals(100L, realm.getCount());
+        assertEquals(1L, realm.getFailures());
+        assertEquals(505.0, realm.getP50Ms(), 0.001);
+        assertEquals(950.5, realm.getP95Ms(), 0.001);
+        assertEquals(990.1, realm.getP99Ms(), 0.001);
+        assertEquals(1000L, realm.getMaxMs());
+    }
+
+    @Test
+    void attemptNumbersAreUniquePerTenantAndStep() {
+        Instant now = Instant.now();
+        repository.saveAndFlush(entry("T1", "REALM", 1, "FAILED", now, 10L));
+
+        assertEquals(1L, repository.countByTenantIdAndStep("T1", "REALM"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.saveAndFlush(entry("T1", "REALM", 1, "RUNNING", now, null)));
+    }
+
+    private static ProvisioningStepJournal entry(String tenantId, String step, int attempt, String outcome,
+                                                 Instant startedAt, Long durationMs) {
+        ProvisioningStepJournal e = new ProvisioningStepJournal();
+        e.setTenantId(tenantId);
+        e.setTenantName(tenantId.toLowerCase());
+        e.setStep(step);
+        e.setAttempt(attempt);
+        e.setOutcome(outcome);
+        e.setStartedAt(startedAt);
+        e.setDurationMs(durationMs);
+        if (durationMs != null) {
+            e.setFinishedAt(startedAt.plusMillis(durationMs));
+        }
+        return e;
+    }
+}
@@ -0,0 +1,52 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.event.TenantChangedEvent;
+import com.secufusion.iam.repository.TenantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CallerTenantCacheTest {
+
+    private TenantRepository tenantRepository;
+    private CallerTenantCache cache;
+    private final Tenant tenant = new Tenant();
+
+    @BeforeEach
+    void setUp() {
+        tenantRepository = mock(TenantRepository.class);
+        cache = new CallerTenantCache(tenantRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        tenant.setTenantID("T1");
+        tenant.setEmail("ops@acme.com");
+        tenant.setTenantType("MSSP");
+        when(tenantRepository.findByEmail("ops@acme.com")).thenReturn(Optional.of(tenant));
+    }
+
+    @Test
+    void repeatedLookupsHitTheDatabaseOnce() {
+        Tenant first = cache.resolve("ops@acme.com");
+        Tenant second = cache.resolve("ops@acme.com");
+
+        assertEquals("T1", second.getTenantID());
+        assertEquals("MSSP", second.getTenantType());
+        assertNotSame(first, second);
+        verify(tenantRepository, times(1)).findByEmail("ops@acme.com");
+        verifyNoMoreInteractions(tenantRepository);
+    }
+
+    @Test
+    void changedTenantIsReloaded() {
+        cache.resolve("ops@acme.com");
+        cache.onTenantChanged(new TenantChangedEvent(TenantChangedEvent.ChangeType.UPDATED, tenant));
+        cache.resolve("ops@acme.com");
+
+        verify(tenantRepository, times(2)).findByEmail("ops@acme.com");
+    }
+}
@@ -0,0 +1,32 @@
+package com.secufusion.iam.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.util.JwtUtl;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+
+    @Test
+    void exportWithoutCallerTenantIsDenied() {
+        DataSource dataSource = mock(DataSource.class);
+        JwtUtl jwtUtl = mock(JwtUtl.class);
+        when(jwtUtl.getTenantFromEmail(any())).thenReturn(null);
+        ExportService service = new ExportService(dataSource, mock(PlatformTransactionManager.class),
+                new ObjectMapper(), jwtUtl, mock(TenantTree.class), 1000);
+
+        KeycloakOperationException e = assertThrows(KeycloakOperationException.class,
+                () -> service.exportTenants(mock(HttpServletRequest.class), null, ExportService.Format.NDJSON));
+
+        assertEquals("ACCESS_DENIED", e.getErrorCode());
+        verifyNoInteractions(dataSource);
+    }
+}
@@ -0,0 +1,122 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.entity.ProvisioningStepJournal;
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.repository.ProvisioningStepJournalRepository;
+import com.secufusion.iam.util.JwtUtl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProvisioningJournalTest {
+
+    private ProvisioningStepJournalRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private ProvisioningJournal journal;
+    private final Map<Long, ProvisioningStepJournal> rows = new HashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final Tenant tenant = new Tenant();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProvisioningStepJournalRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        journal = new ProvisioningJournal(repository, transactionManager, meterRegistry,
+                mock(JwtUtl.class), mock(TenantTree.class));
+
+        tenant.setTenantID("T1");
+        tenant.setTenantName("acme");
+
+        when(repository.saveAndFlush(any())).thenAnswer(inv -> {
+            ProvisioningStepJournal entry = inv.getArgument(0);
+            entry.setPkJournalId(ids.incrementAndGet());
+            rows.put(entry.getPkJournalId(), entry);
+            return entry;
+        });
+        when(repository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<Long>getArgument(0))));
+        when(repository.countByTenantIdAndStep(any(), any())).thenAnswer(inv -> rows.values().stream()
+                .filter(r -> r.getTenantId().equals(inv.getArgument(0)) && r.getStep().equals(inv.getArgument(1)))
+                .count());
+    }
+
+    @Test
+    void concurrentRunsForSameTenantFinishTheirOwnRows() {
+        ProvisioningListener first = journal.newRun();
+        ProvisioningListener second = journal.newRun();
+
+        first.stepStarted(tenant, ProvisioningListener.STEP_REALM);
+        second.stepStarted(tenant, ProvisioningListener.STEP_REALM);
+        second.stepFailed(tenant, ProvisioningListener.STEP_REALM, TimeUnit.MILLISECONDS.toNanos(20),
+                new KeycloakOperationException("REALM_CREATE_FAILED", 1001, "boom"));
+        first.stepCompleted(tenant, ProvisioningListener.STEP_REALM, TimeUnit.MILLISECONDS.toNanos(50));
+
+        ProvisioningStepJournal a = rows.get(1L);
+        ProvisioningStepJournal b = rows.get(2L);
+        assertEquals(1, a.getAttempt());
+        assertEquals("SUCCEEDED", a.getOutcome());
+        assertEquals(50L, a.getDurationMs());
+        assertEquals(2, b.getAttempt());
+        assertEquals("FAILED", b.getOutcome());
+        assertEquals("REALM_CREATE_FAILED", b.getErrorCode());
+    }
+
+    @Test
+    void attemptNumberTakenByAnotherRunIsRetried() {
+        doThrow(new DataIntegrityViolationException("uq_psj_tenant_step_attempt"))
+                .doAnswer(inv -> {
+                    ProvisioningStepJournal entry = inv.getArgument(0);
+                    entry.setPkJournalId(7L);
+                    rows.put(7L, entry);
+                    return entry;
+                })
+                .when(repository).saveAndFlush(any());
+
+        ProvisioningListener run = journal.newRun();
+        run.stepStarted(tenant, ProvisioningListener.STEP_CLIENT);
+        run.stepCompleted(tenant, ProvisioningListener.STEP_CLIENT, TimeUnit.MILLISECONDS.toNanos(5));
+
+        verify(repository, times(2)).saveAndFlush(any());
+        assertEquals("SUCCEEDED", rows.get(7L).getOutcome());
+    }
+
+    @Test
+    void journalFailureDoesNotFailProvisioningAndTimerStillRecords() {
+        doThrow(new IllegalStateException("db down")).when(repository).saveAndFlush(any());
+
+        ProvisioningListener run = journal.newRun();
+        assertDoesNotThrow(() -> {
+            run.stepStarted(tenant, ProvisioningListener.STEP_USER);
+            run.stepCompleted(tenant, ProvisioningListener.STEP_USER, TimeUnit.MILLISECONDS.toNanos(10));
+        });
+
+        assertEquals(1, meterRegistry.get("iam.tenant.provisioning.step")
+                .tag("step", ProvisioningListener.STEP_USER)
+                .tag("outcome", "SUCCEEDED")
+                .timer().count());
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    void latencyWindowMustBePositive() {
+        KeycloakOperationException e = assertThrows(KeycloakOperationException.class,
+                () -> journal.latencies(Duration.ZERO));
+        assertEquals("INVALID_WINDOW", e.getErrorCode());
+    }
+}
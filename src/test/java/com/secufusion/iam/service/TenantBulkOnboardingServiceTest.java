@@ -0,0 +1,183 @@
+package com.secufusion.iam.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secufusion.iam.dto.BulkTenantResult;
+import com.secufusion.iam.dto.CreateTenantRequest;
+import com.secufusion.iam.dto.TenantResponse;
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.repository.TenantRepository;
+import com.secufusion.iam.repository.UserRepository;
+import com.secufusion.iam.util.JwtUtl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TenantBulkOnboardingServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TenantService tenantService;
+    private TenantProvisioningExecutor provisioningExecutor;
+    private TenantRepository tenantRepository;
+    private JwtUtl jwtUtl;
+    private TenantBulkOnboardingService service;
+
+    @BeforeEach
+    void setUp() {
+        tenantService = mock(TenantService.class);
+        provisioningExecutor = mock(TenantProvisioningExecutor.class);
+        tenantRepository = mock(TenantRepository.class);
+        jwtUtl = mock(JwtUtl.class);
+        service = new TenantBulkOnboardingService(tenantService, provisioningExecutor, tenantRepository,
+                mock(UserRepository.class), jwtUtl, objectMapper);
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+        ReflectionTestUtils.setField(service, "maxRows", 10);
+        ReflectionTestUtils.setField(service, "submitRetries", 0);
+
+        Tenant parent = new Tenant();
+        parent.setTenantID("P1");
+        when(jwtUtl.getTenantFromEmail(any())).thenReturn(parent);
+        when(tenantService.normalizeDomainForDB(anyString())).thenAnswer(inv -> inv.getArgument(0));
+        when(provisioningExecutor.provision(any(), any())).thenAnswer(inv -> {
+            TenantResponse resp = new TenantResponse();
+            resp.setTenantID("id-" + inv.getArgument(1, CreateTenantRequest.class).getTenantName());
+            resp.setStatus("ACTIVE");
+            return CompletableFuture.completedFuture(resp);
+        });
+    }
+
+    @Test
+    void splitCsvLineHandlesQuotesAndEmptyCells() {
+        assertEquals(List.of("a", "b", ""), TenantBulkOnboardingService.splitCsvLine("a,b,"));
+        assertEquals(List.of("x, y", "say \"hi\"", "z"),
+                TenantBulkOnboardingService.splitCsvLine("\"x, y\",\"say \"\"hi\"\"\",z"));
+        assertEquals(List.of(""), TenantBulkOnboardingService.splitCsvLine(""));
+    }
+
+    @Test
+    void splitCsvLineRejectsUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> TenantBulkOnboardingService.splitCsvLine("a,\"b"));
+    }
+
+    @Test
+    void duplicatesWithinBatchAreRejected() throws Exception {
+        List<BulkTenantResult> results = run(
+                row("acme", "acme.com", "111", "a@acme.com", "admin@acme.com", "911"),
+                row("acme", "acme2.com", "222", "b@acme.com", "admin2@acme.com", "922"),
+                row("globex", "acme.com", "333", "c@globex.com", "admin@globex.com", "933"));
+
+        assertEquals("SUCCEEDED", results.get(0).getOutcome());
+        assertEquals("ORGANIZATION_NAME_ALREADY_EXISTS", results.get(1).getErrorCode());
+        assertEquals("DOMAIN_ALREADY_EXISTS", results.get(2).getErrorCode());
+        verify(provisioningExecutor, times(1)).provision(any(), any());
+    }
+
+    @Test
+    void activeTenantIsAConflictAndOthersAreResumed() throws Exception {
+        Tenant active = new Tenant();
+        active.setTenantName("acme");
+        active.setStatus("ACTIVE");
+        Tenant halfDone = new Tenant();
+        halfDone.setTenantName("globex");
+        halfDone.setStatus("CREATED_LOCAL");
+        when(tenantRepository.findByTenantNameIn(any())).thenReturn(List.of(active, halfDone));
+
+        List<BulkTenantResult> results = run(
+                row("acme", "acme.com", "111", "a@acme.com", "admin@acme.com", "911"),
+                row("globex", "globex.com", "222", "b@globex.com", "admin@globex.com", "922"));
+
+        assertEquals("REJECTED", results.get(0).getOutcome());
+        assertEquals("TENANT_ALREADY_ACTIVE", results.get(0).getErrorCode());
+        assertEquals("SUCCEEDED", results.get(1).getOutcome());
+    }
+
+    @Test
+    void csvRowsAreMappedIncludingNestedFields() throws Exception {
+        String csv = "tenantName,domain,phoneNo,email,adminEmail,adminPhoneNumber,permanentAddress.country\n"
+                + "acme,acme.com,111,a@acme.com,admin@acme.com,911,IN\n"
+                + "globex,,222,b@globex.com,admin@globex.com,922,US\n";
+
+        List<BulkTenantResult> results = parse(service.onboard(null,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true));
+
+        assertEquals("SUCCEEDED", results.get(0).getOutcome());
+        assertEquals("id-acme", results.get(0).getTenantId());
+        assertEquals("INVALID_DOMAIN", results.get(1).getErrorCode());
+    }
+
+    @Test
+    void rejectedByFullPoolIsReportedAndReleasesItsSlot() throws Exception {
+        doThrow(new TaskRejectedException("full")).when(provisioningExecutor).provision(any(), any());
+
+        List<BulkTenantResult> results = run(
+                row("a", "a.com", "1", "a@a.com", "admin@a.com", "91"),
+                row("b", "b.com", "2", "b@b.com", "admin@b.com", "92"),
+                row("c", "c.com", "3", "c@c.com", "admin@c.com", "93"));
+
+        assertEquals(3, results.size());
+        results.forEach(r -> {
+            assertEquals("FAILED", r.getOutcome());
+            assertEquals("PROVISIONING_QUEUE_FULL", r.getErrorCode());
+        });
+    }
+
+    @Test
+    void tooManyRowsIsRejected() {
+        ReflectionTestUtils.setField(service, "maxRows", 1);
+        String body = row("a", "a.com", "1", "a@a.com", "admin@a.com", "91") + "\n"
+                + row("b", "b.com", "2", "b@b.com", "admin@b.com", "92");
+
+        KeycloakOperationException e = assertThrows(KeycloakOperationException.class, () ->
+                service.onboard(null, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), false));
+        assertEquals("BULK_TOO_LARGE", e.getErrorCode());
+    }
+
+    @Test
+    void missingCallerTenantIsDeniedBeforeParsing() {
+        when(jwtUtl.getTenantFromEmail(any())).thenReturn(null);
+        InputStream body = mock(InputStream.class);
+
+        KeycloakOperationException e = assertThrows(KeycloakOperationException.class,
+                () -> service.onboard(null, body, false));
+        assertEquals("ACCESS_DENIED", e.getErrorCode());
+        verifyNoInteractions(body, provisioningExecutor);
+    }
+
+    private List<BulkTenantResult> run(String... ndjsonRows) throws Exception {
+        byte[] body = String.join("\n", ndjsonRows).getBytes(StandardCharsets.UTF_8);
+        return parse(service.onboard(null, new ByteArrayInputStream(body), false));
+    }
+
+    private List<BulkTenantResult> parse(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        List<BulkTenantResult> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                results.add(objectMapper.readValue(line, BulkTenantResult.class));
+            }
+        }
+        results.sort(Comparator.comparingInt(BulkTenantResult::getRow));
+        return results;
+    }
+
+    private String row(String name, String domain, String phone, String email, String adminEmail, String adminPhone) {
+        return String.format("{\"tenantName\":\"%s\",\"domain\":\"%s\",\"phoneNo\":\"%s\",\"email\":\"%s\","
+                + "\"adminEmail\":\"%s\",\"adminPhoneNumber\":\"%s\"}", name, domain, phone, email, adminEmail, adminPhone);
+    }
+}
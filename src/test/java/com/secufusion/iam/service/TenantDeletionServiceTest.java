@@ -0,0 +1,113 @@
+package com.secufusion.iam.service;
+
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.secufusion.iam.config.JwksKeyStore;
+import com.secufusion.iam.config.JwtDecoderRegistry;
+import com.secufusion.iam.config.VerifiedTokenCache;
+import com.secufusion.iam.dto.TenantDeletionJobStatus;
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.event.AuthProviderConfigChangedEvent;
+import com.secufusion.iam.event.AuthProviderConfigChangedEvent.ChangeType;
+import com.secufusion.iam.repository.AuthProviderConfigRepository;
+import com.secufusion.iam.repository.TenantRepository;
+import com.secufusion.iam.util.JwtUtl;
+import com.secufusion.iam.util.KeycloakAdminUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TenantDeletionServiceTest {
+
+    private static final String ISSUER = "https://kc.example.com/realms/acme";
+
+    private final UUID authId = UUID.randomUUID();
+    private JwksKeyStore keyStore;
+    private JwtDecoderRegistry registry;
+    private TenantDeletionService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        keyStore = mock(JwksKeyStore.class);
+        when(keyStore.sourceFor(ISSUER)).thenReturn(mock(JWKSource.class));
+        VerifiedTokenCache verifiedTokenCache = mock(VerifiedTokenCache.class);
+        when(verifiedTokenCache.wrap(any(), any())).thenReturn(mock(JwtDecoder.class));
+        registry = new JwtDecoderRegistry(mock(AuthProviderConfigRepository.class), keyStore,
+                verifiedTokenCache, new SimpleMeterRegistry());
+        registry.onConfigChanged(new AuthProviderConfigChangedEvent(ChangeType.SAVED, authId, ISSUER, null));
+
+        Tenant parent = new Tenant();
+        parent.setTenantID("P1");
+        Tenant tenant = new Tenant();
+        tenant.setTenantID("T1");
+
+        TenantRepository tenantRepository = mock(TenantRepository.class);
+        when(tenantRepository.findByTenantID("T1")).thenReturn(Optional.of(tenant));
+        when(tenantRepository.findById("T1")).thenReturn(Optional.of(tenant));
+        TenantTree tenantTree = mock(TenantTree.class);
+        when(tenantTree.isAncestorOrSelf("P1", "T1")).thenReturn(true);
+        when(tenantTree.descendantIds("T1")).thenReturn(List.of());
+        JwtUtl jwtUtl = mock(JwtUtl.class);
+        when(jwtUtl.getTenantFromEmail(any())).thenReturn(parent);
+
+        ResultSet row = mock(ResultSet.class);
+        when(row.getObject("auth_id", UUID.class)).thenReturn(authId);
+        when(row.getString("issuer_uri")).thenReturn(ISSUER);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(startsWith("DELETE FROM auth_provider_config"),
+                ArgumentMatchers.<RowMapper<AuthProviderConfigChangedEvent>>any(), eq("T1")))
+                .thenAnswer(inv -> List.of(inv.<RowMapper<AuthProviderConfigChangedEvent>>getArgument(1).mapRow(row, 0)));
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        service = new TenantDeletionService(tenantRepository, tenantTree, mock(KeycloakAdminUtil.class), jwtUtl,
+                jdbcTemplate, transactionTemplate,
+                event -> {
+                    if (event instanceof AuthProviderConfigChangedEvent e) {
+                        registry.onConfigChanged(e);
+                    }
+                },
+                1, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void deletedTenantsIssuerIsEvicted() {
+        assertEquals(1, registry.size());
+
+        TenantDeletionJobStatus status = service.deleteNow(mock(HttpServletRequest.class), "T1");
+
+        assertEquals("SUCCEEDED", status.getState());
+        assertEquals(1L, status.getRowsDeleted().get("auth_provider_config"));
+        assertEquals(0, registry.size());
+        verify(keyStore).unregister(ISSUER);
+    }
+}
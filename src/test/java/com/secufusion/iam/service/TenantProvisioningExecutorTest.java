@@ -0,0 +1,47 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.dto.CreateTenantRequest;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import com.secufusion.iam.util.JwtUtl;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TenantProvisioningExecutorTest {
+
+    private TenantService tenantService;
+    private JwtUtl jwtUtl;
+    private TenantProvisioningExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        tenantService = mock(TenantService.class);
+        jwtUtl = mock(JwtUtl.class);
+        executor = new TenantProvisioningExecutor(tenantService, jwtUtl, 1, 1, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void submitWithoutCallerTenantIsDeniedBeforeAnythingIsWritten() {
+        when(jwtUtl.getTenantFromEmail(any())).thenReturn(null);
+        CreateTenantRequest req = new CreateTenantRequest();
+        req.setTenantName("acme");
+
+        KeycloakOperationException e = assertThrows(KeycloakOperationException.class,
+                () -> executor.submit(mock(HttpServletRequest.class), req));
+
+        assertEquals("ACCESS_DENIED", e.getErrorCode());
+        verifyNoInteractions(tenantService);
+    }
+}
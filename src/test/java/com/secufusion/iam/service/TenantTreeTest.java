@@ -0,0 +1,102 @@
+package com.secufusion.iam.service;
+
+import com.secufusion.iam.entity.Tenant;
+import com.secufusion.iam.event.TenantChangedEvent;
+import com.secufusion.iam.event.TenantChangedEvent.ChangeType;
+import com.secufusion.iam.repository.TenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TenantTreeTest {
+
+    private TenantRepository tenantRepository;
+    private TenantTree tree;
+
+    private static TenantRepository.TenantLink link(String id, String parentId) {
+        return new TenantRepository.TenantLink() {
+            public String getTenantId() { return id; }
+            public String getParentTenantId() { return parentId; }
+        };
+    }
+
+    private static Tenant tenant(String id, String parentId) {
+        Tenant t = new Tenant();
+        t.setTenantID(id);
+        t.setParentTenantId(parentId);
+        return t;
+    }
+
+    @BeforeEach
+    void setUp() {
+        tenantRepository = mock(TenantRepository.class);
+        // root -> mssp -> a, b ; a -> a1
+        when(tenantRepository.findAllLinks()).thenReturn(List.of(
+                link("root", null), link("mssp", "root"), link("a", "mssp"), link("b", "mssp"), link("a1", "a")));
+        tree = new TenantTree(tenantRepository, Duration.ofMinutes(10));
+        tree.reload();
+    }
+
+    @Test
+    void answersAncestorChecksFromIntervals() {
+        assertThat(tree.isAncestorOrSelf("root", "a1")).isTrue();
+        assertThat(tree.isAncestorOrSelf("mssp", "b")).isTrue();
+        assertThat(tree.isAncestorOrSelf("a", "a")).isTrue();
+        assertThat(tree.isAncestorOrSelf("a", "b")).isFalse();
+        assertThat(tree.isAncestorOrSelf("a1", "mssp")).isFalse();
+        assertThat(tree.descendantIds("mssp")).containsExactly("a", "a1", "b");
+        verify(tenantRepository, never()).findByTenantID(any());
+    }
+
+    @Test
+    void followsCreateReparentAndDelete() {
+        tree.onTenantChanged(new TenantChangedEvent(ChangeType.CREATED, tenant("b1", "b")));
+        assertThat(tree.isAncestorOrSelf("mssp", "b1")).isTrue();
+
+        tree.onTenantChanged(new TenantChangedEvent(ChangeType.UPDATED, tenant("b", "a1")));
+        assertThat(tree.isAncestorOrSelf("a", "b1")).isTrue();
+
+        tree.onTenantChanged(new TenantChangedEvent(ChangeType.DELETED, tenant("a1", "a")));
+        assertThat(tree.isAncestorOrSelf("mssp", "b")).isFalse();
+        assertThat(tree.isAncestorOrSelf("b", "b1")).isTrue();
+    }
+
+    @Test
+    void loadsUnknownTenantsFromTheDatabase() {
+        when(tenantRepository.findByTenantID("x")).thenReturn(Optional.of(tenant("x", "a")));
+
+        assertThat(tree.isAncestorOrSelf("mssp", "x")).isTrue();
+        assertThat(tree.isAncestorOrSelf("b", "unknown")).isFalse();
+    }
+
+    @Test
+    void slowDatabaseLoadDoesNotBlockOtherChecks() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tenantRepository.findByTenantID("y")).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(tenant("y", "b"));
+        });
+        tree.onTenantChanged(new TenantChangedEvent(ChangeType.CREATED, tenant("b1", "b")));
+
+        CompletableFuture<Boolean> slow = CompletableFuture.supplyAsync(() -> tree.isAncestorOrSelf("mssp", "y"));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // numbering is stale and "y" is still loading; this check must not wait for it
+        CompletableFuture<Boolean> other = CompletableFuture.supplyAsync(() -> tree.isAncestorOrSelf("root", "b1"));
+        assertThat(other.get(2, TimeUnit.SECONDS)).isTrue();
+
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
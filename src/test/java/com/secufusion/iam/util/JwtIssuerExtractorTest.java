@@ -0,0 +1,58 @@
+package com.secufusion.iam.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtIssuerExtractorTest {
+
+    private static String token(String payloadJson) {
+        Base64.Encoder enc = Base64.getUrlEncoder().withoutPadding();
+        return enc.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + enc.encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8)) + ".sig";
+    }
+
+    @Test
+    void readsTopLevelIssuer() {
+        String t = token("{\"exp\":1,\"iat\":2,\"iss\":\"https://kc/realms/acme\",\"aud\":\"account\"}");
+        assertThat(JwtIssuerExtractor.extractIssuer(t)).isEqualTo("https://kc/realms/acme");
+    }
+
+    @Test
+    void ignoresNestedIssAndDecodesEscapes() {
+        String t = token("{ \"realm_access\" : {\"roles\":[\"iss\",{\"iss\":\"nested\"}]}, \"n\": -1.5e3,"
+                + " \"ok\": true, \"iss\" : \"https:\\/\\/kc\\/realms\\/acme\" }");
+        assertThat(JwtIssuerExtractor.extractIssuer(t)).isEqualTo("https://kc/realms/acme");
+    }
+
+    @Test
+    void acceptsPaddedPayload() {
+        String payload = Base64.getUrlEncoder().encodeToString("{\"iss\":\"pad\"}".getBytes(StandardCharsets.UTF_8));
+        assertThat(JwtIssuerExtractor.extractIssuer("h." + payload + ".s")).isEqualTo("pad");
+    }
+
+    @Test
+    void returnsNullOnMalformedInput() {
+        assertThat(JwtIssuerExtractor.extractIssuer(null)).isNull();
+        assertThat(JwtIssuerExtractor.extractIssuer("no-dots")).isNull();
+        assertThat(JwtIssuerExtractor.extractIssuer("a.!!!!.c")).isNull();
+        assertThat(JwtIssuerExtractor.extractIssuer("a.AAAAA.c")).isNull();
+        assertThat(JwtIssuerExtractor.extractIssuer(token("{}"))).isNull();
+        assertThat(JwtIssuerExtractor.extractIssuer(token("[\"iss\"]"))).isNull();
+        assertThat(JwtIssuerExtractor.extractIssuer(token("{\"aud\":"))).isNull();
+        assertThat(JwtIssuerExtractor.extractIssuer(token("{\"iss\":5}"))).isNull();
+    }
+
+    @Test
+    void handlesTokensLargerThanTheInitialBuffer() {
+        StringBuilder roles = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            roles.append(i == 0 ? "" : ",").append("\"role-").append(i).append('"');
+        }
+        String t = token("{\"roles\":[" + roles + "],\"iss\":\"big\"}");
+        assertThat(JwtIssuerExtractor.extractIssuer(t)).isEqualTo("big");
+    }
+}
@@ -0,0 +1,48 @@
+package com.secufusion.iam.util;
+
+import com.secufusion.iam.dto.PageResponse;
+import com.secufusion.iam.exception.KeycloakOperationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPagingTest {
+
+    private final KeysetPaging paging = new KeysetPaging(2, 3);
+
+    @Test
+    void clampsPageSize() {
+        assertThat(paging.size(null)).isEqualTo(2);
+        assertThat(paging.size(100)).isEqualTo(3);
+        assertThatThrownBy(() -> paging.size(0)).isInstanceOf(KeycloakOperationException.class);
+    }
+
+    @Test
+    void cursorPointsAtLastKeyOfPage() {
+        PageResponse<String> page = paging.page(List.of("a", "b", "c"), 2, Function.identity(), Function.identity());
+
+        assertThat(page.getItems()).containsExactly("a", "b");
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(paging.after(page.getNextCursor())).isEqualTo("b");
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        PageResponse<Long> page = paging.page(List.of(7L), 2, Function.identity(), Function.identity());
+
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(paging.after(null)).isNull();
+    }
+
+    @Test
+    void rejectsForeignCursors() {
+        assertThatThrownBy(() -> paging.after("not-a-cursor")).isInstanceOf(KeycloakOperationException.class);
+        String numeric = paging.page(List.of(1L, 2L, 3L), 2, Function.identity(), Function.identity()).getNextCursor();
+        assertThat(paging.afterLong(numeric)).isEqualTo(2L);
+    }
+}